@@ -8,6 +8,7 @@ public abstract class AIPlayer extends Player {
     public static void registerAllAIPlayers() {
         registerAIPlayerType("RandomAI", RandomAI.class);
         registerAIPlayerType("GreedyAI", GreedyAI.class);
+        registerAIPlayerType("AlphaBetaAI", AlphaBetaAI.class);
         // Add more AIPlayer subclasses here as needed
     }
     @Override
@@ -0,0 +1,191 @@
+import java.util.EnumSet;
+
+/**
+ * AlphaBetaAI is an AI player that looks several moves ahead with an alpha-beta search,
+ * trying bombs and unflippable discs as well as simple discs on every valid square.
+ * The search algorithm can be chosen per instance; it defaults to principal variation
+ * search with aspiration windows, pruned with Multi-ProbCut when parameters are available.
+ * Bombs and unflippable discs are only tried on the squares where a static estimate
+ * says spending them is worth it.
+ *
+ * While the opponent thinks, the AI ponders: it guesses the reply from its transposition table and
+ * searches the position after it on a background thread. If the guess was right, the next move is
+ * played at once; otherwise the entries the background search stored still speed up the real search.
+ */
+public class AlphaBetaAI extends AIPlayer {
+    private static final int SEARCH_DEPTH = 5; // Number of moves the AI looks ahead
+    private static final int TABLE_SIZE_LOG2 = 20; // 1M transposition table entries
+    private static final int ASPIRATION_WINDOW = 40; // Default aspiration half-width
+    private static final int STABILITY_EMPTIES = 16; // Stability cutoffs are only worth it in the endgame
+    private static final int PONDER_EXTRA_DEPTH = 3; // Pondering goes this much deeper than a move, then idles
+
+    private final SearchEngine engine;
+    private boolean pondering = true; // Search on the opponent's time
+    private Thread ponderThread; // Searches ponderPosition while the opponent thinks, or null
+    private GameSnapshot ponderPosition; // Position expected after the opponent's reply
+    private SearchResult ponderResult; // Result of the background search, set when the thread ends
+    private volatile boolean ponderCancelled; // Keeps a ponder thread that has not started searching from starting
+
+    /**
+     * Constructs an AlphaBetaAI player.
+     *
+     * @param isPlayerOne True if the AI is Player 1, false otherwise.
+     */
+    public AlphaBetaAI(boolean isPlayerOne) {
+        this(isPlayerOne, SearchEngine.Algorithm.PVS, ASPIRATION_WINDOW);
+    }
+
+    /**
+     * Constructs an AlphaBetaAI player with a chosen search algorithm.
+     *
+     * @param isPlayerOne      True if the AI is Player 1, false otherwise.
+     * @param algorithm        The search algorithm.
+     * @param aspirationWindow The aspiration half-width, or 0 for full-window iterations.
+     */
+    public AlphaBetaAI(boolean isPlayerOne, SearchEngine.Algorithm algorithm, int aspirationWindow) {
+        super(isPlayerOne);
+        this.engine = newEngine(new TranspositionTable(TABLE_SIZE_LOG2));
+        setSearchAlgorithm(algorithm, aspirationWindow);
+    }
+
+    /**
+     * Creates a search engine configured like the one this AI plays with, for analysis tools.
+     *
+     * @param table The transposition table to use; it may be shared with other engines.
+     * @return A new engine using PVS with aspiration windows, every pruning technique available,
+     * the evaluation network if one is configured (square weights otherwise),
+     * and the persistent evaluation store if one is configured.
+     */
+    public static SearchEngine newEngine(TranspositionTable table) {
+        NnueNetwork network = NnueNetwork.loadDefault(); // Null unless a network file is available
+        Evaluator evaluator = network != null ? new NnueEvaluator(network) : new WeightedSquareEvaluator();
+        SearchEngine engine = new SearchEngine(table,
+                new MoveOrdering(EnumSet.allOf(MoveOrdering.Heuristic.class)), evaluator);
+        engine.setAlgorithm(SearchEngine.Algorithm.PVS);
+        engine.setAspirationWindow(ASPIRATION_WINDOW);
+        engine.setProbCut(ProbCut.loadDefault()); // Null when no parameters are bundled
+        engine.setSpecialDiscPolicy(new SpecialDiscPolicy());
+        engine.setStabilityCutoff(STABILITY_EMPTIES);
+        engine.setStore(EvaluationStore.shared()); // Null unless a store file is configured
+        return engine;
+    }
+
+    /**
+     * Changes the search algorithm used for the next moves.
+     *
+     * @param algorithm        The search algorithm.
+     * @param aspirationWindow The aspiration half-width, or 0 for full-window iterations.
+     */
+    public void setSearchAlgorithm(SearchEngine.Algorithm algorithm, int aspirationWindow) {
+        stopPondering(null);
+        engine.setAlgorithm(algorithm);
+        engine.setAspirationWindow(aspirationWindow);
+    }
+
+    /**
+     * Turns pondering on or off. It is on by default; matches between AIs on shared cores turn it off,
+     * since the background search slows down the opponent.
+     *
+     * @param pondering True to search on the opponent's time.
+     */
+    public void setPondering(boolean pondering) {
+        this.pondering = pondering;
+        if (!pondering) {
+            stopPondering(null);
+        }
+    }
+
+    /**
+     * Forgets what earlier searches learned, so that the next moves do not depend on the games this
+     * player has played before. Tools that must be able to replay a game exactly call it before each game.
+     */
+    public void clearSearchMemory() {
+        stopPondering(null);
+        engine.clear();
+    }
+
+    /**
+     * Searches the current position and plays the best move found.
+     * In a timed game the search deepens for as long as the clock allows instead of stopping at a fixed depth.
+     * Without a clock, a position that was already searched deep enough while pondering is answered at once.
+     *
+     * @param gameStatus The current game state.
+     * @return The chosen move.
+     */
+    @Override
+    public Move makeMove(PlayableLogic gameStatus) {
+        SearchBoard board = SearchBoard.from(gameStatus);
+        SearchResult pondered = stopPondering(GameSnapshot.of(board));
+        GameClock clock = gameStatus instanceof GameLogic ? ((GameLogic) gameStatus).getClock() : null;
+        SearchResult result;
+        if (clock == null && pondered != null && pondered.depth() >= SEARCH_DEPTH) {
+            result = pondered; // The opponent played the expected reply
+        } else if (clock == null) {
+            result = engine.search(board, SEARCH_DEPTH);
+        } else {
+            result = engine.search(board, SearchBoard.MAX_PLY, clock.budget(isPlayerOne() ? 0 : 1, Long.bitCount(board.empty())));
+        }
+        startPondering(board, result.bestMove());
+        return SearchBoard.toMove(result.bestMove(), this);
+    }
+
+    /**
+     * Starts searching the position expected after a move and the opponent's most likely reply.
+     * When the table holds no reply, the position after the move is searched instead, which fills
+     * the table for every reply.
+     *
+     * @param board The position before the move.
+     * @param move  The move this AI plays.
+     */
+    private void startPondering(SearchBoard board, int move) {
+        if (!pondering || move == SearchBoard.NO_MOVE || move == SearchBoard.PASS) {
+            return;
+        }
+        GameSnapshot next = GameSnapshot.of(board).play(move);
+        SearchBoard replyBoard = next.toSearchBoard();
+        if (replyBoard.isGameOver()) {
+            return;
+        }
+        int reply = replyBoard.mustPass() ? SearchBoard.PASS : engine.expectedMove(replyBoard);
+        GameSnapshot target = reply == SearchBoard.NO_MOVE ? next : next.play(reply);
+        ponderPosition = target;
+        ponderCancelled = false;
+        ponderThread = new Thread(() -> {
+            if (!ponderCancelled) {
+                ponderResult = engine.search(target.toSearchBoard(), SEARCH_DEPTH + PONDER_EXTRA_DEPTH);
+            }
+        }, "AlphaBetaAI ponder");
+        ponderThread.setDaemon(true); // Never keeps the application alive
+        ponderThread.start();
+    }
+
+    /**
+     * Stops the background search and waits until it has returned, so that the engine can be used again.
+     *
+     * @param position The position to be searched now, or null.
+     * @return The background search's result if it searched this position, or null.
+     */
+    private SearchResult stopPondering(GameSnapshot position) {
+        if (ponderThread == null) {
+            return null;
+        }
+        ponderCancelled = true;
+        boolean interrupted = false;
+        while (ponderThread.isAlive()) {
+            engine.stop(); // Repeated in case the search was just starting
+            try {
+                ponderThread.join(1);
+            } catch (InterruptedException e) {
+                interrupted = true; // The engine must not be shared, so keep waiting
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        SearchResult result = ponderPosition.equals(position) ? ponderResult : null;
+        ponderThread = null;
+        ponderPosition = null;
+        ponderResult = null;
+        return result;
+    }
+}
@@ -0,0 +1,269 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless tool that evaluates every position of a file with the AlphaBetaAI engine, on all cores.
+ * Each input line is either a position in the {@link GameSnapshot} text notation or a recorded game
+ * in the {@link GameRecord} notation, of which every position is evaluated. Empty lines and lines
+ * starting with '#' are skipped.
+ *
+ * The positions are read in chunks; every chunk is a fork/join task that splits down to single
+ * positions, so idle workers steal work from busy ones. All workers share one transposition table.
+ * Only a few chunks per worker are in flight: when that many are waiting, reading stops until the
+ * oldest chunk is done and written, so memory stays bounded however large the file is.
+ * Results are written in input order, one tab-separated line per position:
+ * label (line number, or line:ply for games), best move, score for the side to move, depth, nodes, position.
+ *
+ * With -store, results are also kept in a persistent {@link EvaluationStore}, and positions already
+ * searched deep enough by an earlier run are not searched again.
+ *
+ * Run it with: java BatchAnalysis input-file output-file [-depth N] [-time ms] [-threads N] [-store file]
+ */
+public class BatchAnalysis {
+    private static final int DEFAULT_DEPTH = 8;
+    private static final int TABLE_SIZE_LOG2 = 22; // 4M entries shared by all workers
+    private static final int CHUNK_SIZE = 256; // Positions per task read from the file
+    private static final int CHUNKS_PER_THREAD = 4; // Chunks in flight per worker before reading waits
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<SearchEngine> engines; // Engines are not thread safe; the table is shared
+    private final int depth;
+    private final long timeLimitNanos;
+    private final AtomicLong nodes = new AtomicLong();
+
+    /**
+     * One position to evaluate.
+     */
+    private static final class Item {
+        final String label; // Where the position comes from
+        final GameSnapshot position;
+
+        Item(String label, GameSnapshot position) {
+            this.label = label;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Evaluates a range of a chunk, splitting it in halves so that idle workers can steal one.
+     */
+    private final class AnalyzeTask extends RecursiveAction {
+        private final Item[] items;
+        private final String[] results;
+        private final int from;
+        private final int to;
+
+        AnalyzeTask(Item[] items, String[] results, int from, int to) {
+            this.items = items;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = analyze(items[from]);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new AnalyzeTask(items, results, from, middle), new AnalyzeTask(items, results, middle, to));
+        }
+    }
+
+    /**
+     * Constructs a batch analysis.
+     *
+     * @param threads        The number of worker threads.
+     * @param depth          The search depth of every position.
+     * @param timeLimitNanos The time limit per position in nanoseconds, or 0 for none.
+     */
+    public BatchAnalysis(int threads, int depth, long timeLimitNanos) {
+        this(threads, depth, timeLimitNanos, EvaluationStore.shared());
+    }
+
+    /**
+     * Constructs a batch analysis with a persistent store.
+     *
+     * @param threads        The number of worker threads.
+     * @param depth          The search depth of every position.
+     * @param timeLimitNanos The time limit per position in nanoseconds, or 0 for none.
+     * @param store          The store shared by all workers, or null.
+     */
+    public BatchAnalysis(int threads, int depth, long timeLimitNanos, EvaluationStore store) {
+        TranspositionTable table = new TranspositionTable(TABLE_SIZE_LOG2);
+        this.pool = new ForkJoinPool(threads);
+        this.engines = ThreadLocal.withInitial(() -> {
+            SearchEngine engine = AlphaBetaAI.newEngine(table);
+            engine.setStore(store);
+            return engine;
+        });
+        this.depth = depth;
+        this.timeLimitNanos = timeLimitNanos;
+    }
+
+    /**
+     * Evaluates every position of an input and writes the results in input order.
+     *
+     * @param input  The positions and games to evaluate.
+     * @param output The destination of the result lines.
+     * @return The number of positions evaluated.
+     * @throws IOException If reading or writing fails.
+     */
+    public long run(BufferedReader input, Writer output) throws IOException {
+        int maxInFlight = pool.getParallelism() * CHUNKS_PER_THREAD;
+        Deque<ForkJoinTask<?>> tasks = new ArrayDeque<>();
+        Deque<String[]> pending = new ArrayDeque<>(); // Results of the tasks, in the same order
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        long count = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = input.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                readItems(line, lineNumber, chunk);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Skipping line " + lineNumber + ": " + e.getMessage());
+                continue;
+            }
+            if (chunk.size() >= CHUNK_SIZE) {
+                count += submit(chunk, tasks, pending);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+                while (tasks.size() >= maxInFlight) {
+                    writeOldest(tasks, pending, output); // Back-pressure: stop reading until a chunk is done
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            count += submit(chunk, tasks, pending);
+        }
+        while (!tasks.isEmpty()) {
+            writeOldest(tasks, pending, output);
+        }
+        output.flush();
+        return count;
+    }
+
+    /**
+     * Parses an input line into the positions to evaluate.
+     */
+    private static void readItems(String line, int lineNumber, List<Item> items) {
+        String first = line.split("\\s+", 2)[0];
+        if (first.length() == BitBoard.SQUARES) {
+            items.add(new Item(Integer.toString(lineNumber), GameSnapshot.parse(line)));
+            return;
+        }
+        GameReplay replay = new GameReplay(GameRecord.parse(line)); // Rejects illegal games
+        for (int ply = 0; ply <= replay.size(); ply++) {
+            items.add(new Item(lineNumber + ":" + ply, replay.positionAt(ply)));
+        }
+    }
+
+    private int submit(List<Item> chunk, Deque<ForkJoinTask<?>> tasks, Deque<String[]> pending) {
+        Item[] items = chunk.toArray(new Item[0]);
+        String[] results = new String[items.length];
+        tasks.addLast(pool.submit(new AnalyzeTask(items, results, 0, items.length)));
+        pending.addLast(results);
+        return items.length;
+    }
+
+    private static void writeOldest(Deque<ForkJoinTask<?>> tasks, Deque<String[]> pending, Writer output) throws IOException {
+        tasks.removeFirst().join();
+        for (String result : pending.removeFirst()) {
+            output.write(result);
+            output.write('\n');
+        }
+    }
+
+    /**
+     * Evaluates one position with the engine of the current worker.
+     */
+    private String analyze(Item item) {
+        SearchResult result = engines.get().search(item.position.toSearchBoard(),
+                timeLimitNanos > 0 ? Integer.MAX_VALUE : depth, timeLimitNanos);
+        nodes.addAndGet(result.nodes());
+        String best = result.bestMove() == SearchBoard.NO_MOVE ? "-" : GameRecord.format(result.bestMove());
+        return item.label + '\t' + best + '\t' + result.score() + '\t' + result.depth() + '\t' + result.nodes()
+                + '\t' + item.position;
+    }
+
+    /**
+     * Gets the number of nodes searched so far, over all workers.
+     *
+     * @return The node count.
+     */
+    public long getNodes() {
+        return nodes.get();
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java BatchAnalysis input-file output-file [-depth N] [-time ms] [-threads N] [-store file]");
+            return;
+        }
+        int depth = DEFAULT_DEPTH;
+        long timeLimitNanos = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        EvaluationStore store = null;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-depth":
+                    depth = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-time":
+                    timeLimitNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[i + 1]));
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-store":
+                    store = EvaluationStore.open(Paths.get(args[i + 1]), EvaluationStore.DEFAULT_CAPACITY_LOG2);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        BatchAnalysis analysis = new BatchAnalysis(threads, depth, timeLimitNanos,
+                store != null ? store : EvaluationStore.shared());
+        long start = System.nanoTime();
+        long count;
+        try (BufferedReader input = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             BufferedWriter output = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            count = analysis.run(input, output);
+        } finally {
+            analysis.shutdown();
+            if (store != null) {
+                store.close();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Analyzed %d positions with %d threads in %.1f s (%.0f positions/s, %.0f nodes/s)%n",
+                count, threads, seconds, count / seconds, analysis.getNodes() / seconds);
+    }
+}
@@ -0,0 +1,374 @@
+/**
+ * Precomputed bit masks for the 8x8 Reversi board.
+ * Every square (row, col) is mapped to the bit at index row * 8 + col of a long,
+ * so a set of squares can be stored and combined in a single 64-bit value.
+ */
+public final class BitBoard {
+    public static final int SIZE = 8; // Number of rows and columns
+    public static final int SQUARES = SIZE * SIZE; // Number of squares on the board
+
+    public static final int DIRECTIONS = 8; // Number of directions a line of discs can run in
+    public static final long CORNERS = 0x8100000000000081L; // The four corner squares
+
+    private static final long NOT_COL_A = 0xFEFEFEFEFEFEFEFEL; // Every square except column 0
+    private static final long NOT_COL_H = 0x7F7F7F7F7F7F7F7FL; // Every square except column 7
+    private static final long INNER_COLUMNS = NOT_COL_A & NOT_COL_H; // Every square except columns 0 and 7
+    private static final long[] NEIGHBORS = new long[SQUARES]; // 8-neighbor mask of every square
+    private static final long[][] RAYS = new long[DIRECTIONS][SQUARES]; // Squares from a square to the edge, excluding it
+
+    // Flips are looked up one line at a time. The discs of a line are packed into an 8-bit pattern,
+    // indexed by column (rows and diagonals) or by row (columns), and two tables give the flipped part.
+    private static final long COLUMN_A = 0x0101010101010101L; // Column 0; also copies a byte to every row
+    private static final long COLUMN_TO_BYTE = 0x0102040810204080L; // Gathers column 0 into the top byte, row r at bit r
+    private static final long[] DIAGONALS = new long[SQUARES]; // Line through a square where row - col is constant
+    private static final long[] ANTI_DIAGONALS = new long[SQUARES]; // Line through a square where row + col is constant
+    private static final long[] BYTE_TO_COLUMN = new long[1 << SIZE]; // Inverse of the column packing
+    private static final byte[] OUTFLANK = new byte[SIZE << 6]; // [x][inner opponent bits]: the first square past each run
+    private static final byte[] FLIPPED = new byte[SIZE << SIZE]; // [x][own outflanking squares]: the squares in between
+
+    public static final int SYMMETRIES = 8; // Rotations and reflections of the board, 0 is the identity
+    private static final int[][] SYMMETRIC_SQUARES = new int[SYMMETRIES][SQUARES]; // Image of every square
+    private static final int[] INVERSE_SYMMETRY = {0, 1, 2, 3, 4, 5, 7, 6}; // Only the quarter turns are not involutions
+
+    static {
+        for (int square = 0; square < SQUARES; square++) {
+            int row = square / SIZE;
+            int col = square % SIZE;
+            long mask = 0L;
+            for (int dRow = -1; dRow <= 1; dRow++) {
+                for (int dCol = -1; dCol <= 1; dCol++) {
+                    int r = row + dRow;
+                    int c = col + dCol;
+                    if ((dRow != 0 || dCol != 0) && r >= 0 && r < SIZE && c >= 0 && c < SIZE) {
+                        mask |= bit(r, c);
+                    }
+                }
+            }
+            NEIGHBORS[square] = mask;
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                for (long next = shift(1L << square, direction); next != 0; next = shift(next, direction)) {
+                    RAYS[direction][square] |= next;
+                }
+            }
+            DIAGONALS[square] = (1L << square) | RAYS[0][square] | RAYS[7][square];
+            ANTI_DIAGONALS[square] = (1L << square) | RAYS[2][square] | RAYS[5][square];
+
+            int last = SIZE - 1;
+            int[][] images = { // (row, col) of the square under each symmetry
+                    {row, col}, {row, last - col}, {last - row, col}, {last - row, last - col},
+                    {col, row}, {last - col, last - row}, {col, last - row}, {last - col, row}};
+            for (int symmetry = 0; symmetry < SYMMETRIES; symmetry++) {
+                SYMMETRIC_SQUARES[symmetry][square] = index(images[symmetry][0], images[symmetry][1]);
+            }
+        }
+
+        for (int pattern = 0; pattern < 1 << SIZE; pattern++) {
+            for (int row = 0; row < SIZE; row++) {
+                if ((pattern & 1 << row) != 0) {
+                    BYTE_TO_COLUMN[pattern] |= 1L << row * SIZE;
+                }
+            }
+        }
+        for (int x = 0; x < SIZE; x++) {
+            for (int inner = 0; inner < 1 << SIZE - 2; inner++) {
+                int opp = inner << 1; // The end squares of a line can never be bracketed
+                int outflank = 0;
+                int left = x - 1;
+                while (left > 0 && (opp & 1 << left) != 0) {
+                    left--;
+                }
+                if (left >= 0 && left < x - 1) {
+                    outflank |= 1 << left;
+                }
+                int right = x + 1;
+                while (right < SIZE - 1 && (opp & 1 << right) != 0) {
+                    right++;
+                }
+                if (right < SIZE && right > x + 1) {
+                    outflank |= 1 << right;
+                }
+                OUTFLANK[x << 6 | inner] = (byte) outflank;
+            }
+            for (int outflank = 0; outflank < 1 << SIZE; outflank++) {
+                int flipped = 0;
+                for (int i = 0; i < x; i++) {
+                    if ((outflank & 1 << i) != 0) {
+                        flipped |= (1 << x) - (2 << i); // Squares i + 1 to x - 1
+                    }
+                }
+                for (int i = x + 1; i < SIZE; i++) {
+                    if ((outflank & 1 << i) != 0) {
+                        flipped |= (1 << i) - (2 << x); // Squares x + 1 to i - 1
+                    }
+                }
+                FLIPPED[x << SIZE | outflank] = (byte) flipped;
+            }
+        }
+    }
+
+    private BitBoard() {
+    }
+
+    /**
+     * Gets the square index of a row and column.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return The square index, between 0 and 63.
+     */
+    public static int index(int row, int col) {
+        return row * SIZE + col;
+    }
+
+    /**
+     * Gets the single-bit mask of a row and column.
+     *
+     * @param row The row index.
+     * @param col The column index.
+     * @return A mask with only the bit of the square set.
+     */
+    public static long bit(int row, int col) {
+        return 1L << index(row, col);
+    }
+
+    /**
+     * Maps a square through one of the eight symmetries of the board.
+     * The game rules are the same in every direction, so symmetric positions have the same value.
+     *
+     * @param square   The square index.
+     * @param symmetry The symmetry, between 0 and SYMMETRIES - 1.
+     * @return The image of the square.
+     */
+    public static int transform(int square, int symmetry) {
+        return SYMMETRIC_SQUARES[symmetry][square];
+    }
+
+    /**
+     * Maps every square of a mask through one of the eight symmetries of the board.
+     *
+     * @param mask     The squares.
+     * @param symmetry The symmetry, between 0 and SYMMETRIES - 1.
+     * @return The images of the squares.
+     */
+    public static long transform(long mask, int symmetry) {
+        if (symmetry == 0) {
+            return mask;
+        }
+        long image = 0L;
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            image |= 1L << SYMMETRIC_SQUARES[symmetry][Long.numberOfTrailingZeros(rest)];
+        }
+        return image;
+    }
+
+    /**
+     * Gets the symmetry that undoes another.
+     *
+     * @param symmetry The symmetry.
+     * @return Its inverse.
+     */
+    public static int inverse(int symmetry) {
+        return INVERSE_SYMMETRY[symmetry];
+    }
+
+    /**
+     * Gets the mask of the (up to 8) squares touching the given square.
+     *
+     * @param square The square index.
+     * @return The neighbor mask of the square.
+     */
+    public static long neighbors(int square) {
+        return NEIGHBORS[square];
+    }
+
+    /**
+     * Gets the squares from a square to the edge of the board in one direction.
+     *
+     * @param square    The square index.
+     * @param direction The direction number, between 0 and 7, as in {@link #shift(long, int)}.
+     * @return The mask of the squares on the ray, excluding the square itself.
+     */
+    public static long ray(int square, int direction) {
+        return RAYS[direction][square];
+    }
+
+    /**
+     * Moves every square of a mask one step in a direction, dropping squares that leave the board.
+     * Directions are numbered row by row: 0 = up-left, 1 = up, 2 = up-right,
+     * 3 = left, 4 = right, 5 = down-left, 6 = down, 7 = down-right.
+     *
+     * @param mask      The squares to move.
+     * @param direction The direction number, between 0 and 7.
+     * @return The shifted mask.
+     */
+    public static long shift(long mask, int direction) {
+        switch (direction) {
+            case 0:
+                return (mask >>> 9) & NOT_COL_H;
+            case 1:
+                return mask >>> 8;
+            case 2:
+                return (mask >>> 7) & NOT_COL_A;
+            case 3:
+                return (mask >>> 1) & NOT_COL_H;
+            case 4:
+                return (mask << 1) & NOT_COL_A;
+            case 5:
+                return (mask << 7) & NOT_COL_H;
+            case 6:
+                return mask << 8;
+            default:
+                return (mask << 9) & NOT_COL_A;
+        }
+    }
+
+    /**
+     * Calculates the discs bracketed by a disc placed on a square, without bomb chains.
+     * A run of opponent discs is bracketed when it ends with a disc of the mover.
+     * Each of the four lines through the square is packed into a byte and looked up in the
+     * outflank and flipped tables, instead of walking the eight directions.
+     *
+     * @param square The square of the new disc.
+     * @param own    The discs of the mover.
+     * @param opp    The discs of the opponent.
+     * @return The mask of the bracketed opponent discs.
+     */
+    public static long flips(int square, long own, long opp) {
+        int row = square >>> 3;
+        int col = square & 7;
+
+        int shift = row * SIZE;
+        long flipped = (long) lineFlips(col, (int) (own >>> shift), (int) (opp >>> shift)) << shift;
+
+        int ownColumn = (int) ((((own >>> col) & COLUMN_A) * COLUMN_TO_BYTE) >>> 56);
+        int oppColumn = (int) ((((opp >>> col) & COLUMN_A) * COLUMN_TO_BYTE) >>> 56);
+        flipped |= BYTE_TO_COLUMN[lineFlips(row, ownColumn, oppColumn)] << col;
+
+        long diagonal = DIAGONALS[square];
+        flipped |= (lineFlips(col, (int) (((own & diagonal) * COLUMN_A) >>> 56), (int) (((opp & diagonal) * COLUMN_A) >>> 56))
+                * COLUMN_A) & diagonal;
+
+        long antiDiagonal = ANTI_DIAGONALS[square];
+        flipped |= (lineFlips(col, (int) (((own & antiDiagonal) * COLUMN_A) >>> 56), (int) (((opp & antiDiagonal) * COLUMN_A) >>> 56))
+                * COLUMN_A) & antiDiagonal;
+        return flipped;
+    }
+
+    /**
+     * Looks up the discs bracketed on one line.
+     *
+     * @param x   The position of the new disc on the line.
+     * @param own The discs of the mover on the line, in the low 8 bits.
+     * @param opp The discs of the opponent on the line, in the low 8 bits.
+     * @return The bracketed positions on the line.
+     */
+    private static int lineFlips(int x, int own, int opp) {
+        int outflank = OUTFLANK[x << 6 | (opp >>> 1 & 0x3F)] & own & 0xFF;
+        return FLIPPED[x << SIZE | outflank] & 0xFF;
+    }
+
+    /**
+     * Calculates the discs affected by a disc placed on a square, including bomb chains.
+     * Unflippable discs are part of the result but keep their owner.
+     *
+     * @param square The square of the new disc.
+     * @param own    The discs of the mover.
+     * @param opp    The discs of the opponent.
+     * @param bombs  The squares holding a bomb.
+     * @return The mask of the affected squares.
+     */
+    public static long flips(int square, long own, long opp, long bombs) {
+        long flipped = flips(square, own, opp);
+        if ((flipped & bombs) != 0) {
+            flipped = bombChain(flipped, bombs, opp);
+        }
+        return flipped;
+    }
+
+    /**
+     * Calculates the squares where the mover can legally place a disc:
+     * the move must flip at least one disc that is not unflippable.
+     *
+     * @param own          The discs of the mover.
+     * @param opp          The discs of the opponent.
+     * @param bombs        The squares holding a bomb.
+     * @param unflippables The squares holding an unflippable disc.
+     * @return The mask of the legal squares.
+     */
+    public static long legalSquares(long own, long opp, long bombs, long unflippables) {
+        long candidates = potentialMoves(own, opp);
+        if ((opp & unflippables) == 0) {
+            return candidates; // Every bracketed run flips at least one disc
+        }
+        long legal = 0L;
+        for (long rest = candidates; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            if ((flips(square, own, opp, bombs) & ~unflippables) != 0) {
+                legal |= 1L << square;
+            }
+        }
+        return legal;
+    }
+
+    /**
+     * Calculates the empty squares where the mover brackets at least one opponent disc.
+     * All eight directions are filled at once in straight-line code: each call below handles
+     * a direction and its opposite with the same masks, and doubles the fill distance after
+     * the first two steps, so no step depends on a loop or a branch.
+     *
+     * @param own The discs of the mover.
+     * @param opp The discs of the opponent.
+     * @return The mask of the candidate move squares.
+     */
+    public static long potentialMoves(long own, long opp) {
+        long inner = opp & INNER_COLUMNS; // Runs that wrap around an edge column are cut off
+        long moves = movesAlong(own, inner, 1) | movesAlong(own, opp, SIZE)
+                | movesAlong(own, inner, SIZE - 1) | movesAlong(own, inner, SIZE + 1);
+        return moves & ~(own | opp);
+    }
+
+    /**
+     * Fills the opponent runs next to the mover's discs along one axis, in both directions.
+     *
+     * @param own   The discs of the mover.
+     * @param opp   The opponent discs that a run along this axis may contain.
+     * @param shift The distance between neighbors along the axis.
+     * @return The squares just past the runs, occupied or not.
+     */
+    private static long movesAlong(long own, long opp, int shift) {
+        long up = opp & (own << shift);
+        long down = opp & (own >>> shift);
+        up |= opp & (up << shift);
+        down |= opp & (down >>> shift);
+        long upPairs = opp & (opp << shift); // Squares whose neighbor back along the axis is an opponent disc too
+        long downPairs = opp & (opp >>> shift);
+        up |= upPairs & (up << 2 * shift);
+        down |= downPairs & (down >>> 2 * shift);
+        up |= upPairs & (up << 2 * shift);
+        down |= downPairs & (down >>> 2 * shift);
+        return (up << shift) | (down >>> shift);
+    }
+
+    /**
+     * Resolves bomb chains with an iterative flood fill.
+     * Every bomb inside the set explodes and adds its neighbors that are part of the spread mask;
+     * bombs reached this way explode too, until no new bomb is reached.
+     *
+     * @param seeds  The squares already affected.
+     * @param bombs  The squares holding a bomb disc.
+     * @param spread The squares an explosion is allowed to reach (the opponent's discs).
+     * @return The seeds together with every square reached by the chain.
+     */
+    public static long bombChain(long seeds, long bombs, long spread) {
+        long result = seeds;
+        long pending = seeds & bombs; // Bombs that still have to explode
+        while (pending != 0) {
+            int square = Long.numberOfTrailingZeros(pending);
+            pending &= pending - 1;
+            long reached = NEIGHBORS[square] & spread & ~result;
+            result |= reached;
+            pending |= reached & bombs;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,146 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the bitboard primitives every AI spends most of its time in: computing the flips of a move
+ * and generating the candidate moves of a position. Each is timed against a reference that walks one
+ * direction at a time, square by square, the way the board was originally scanned.
+ * The positions come from random games with a fixed seed, so every run measures the same work.
+ * Run it with: java BitBoardBenchmark [rounds]
+ */
+public class BitBoardBenchmark {
+    private static final long SUITE_SEED = 20240101L; // Seed of the random games
+    private static final int SUITE_GAMES = 500; // Games the positions are taken from
+    private static final int DEFAULT_ROUNDS = 5; // Timed rounds per operation; the fastest counts
+    private static final int REPEATS = 200; // Passes over the positions per round
+
+    private final long[] own; // Discs of the side to move, per position
+    private final long[] opp;
+    private final int[] squares; // A legal square of every position, for the flip benchmarks
+    private long sink; // Keeps the results alive so the JIT cannot drop the work
+
+    /**
+     * Builds the positions: every position of the random games where the side to move has a move.
+     */
+    public BitBoardBenchmark() {
+        SplittableRandom random = new SplittableRandom(SUITE_SEED);
+        List<long[]> positions = new ArrayList<>();
+        int[] moves = new int[SearchBoard.MAX_MOVES];
+        for (int game = 0; game < SUITE_GAMES; game++) {
+            SearchBoard board = SearchBoard.initial();
+            while (!board.isGameOver()) {
+                int count = board.generateMoves(moves);
+                if (count == 0) {
+                    board.play(SearchBoard.PASS);
+                    continue;
+                }
+                int move = moves[random.nextInt(count)];
+                positions.add(new long[]{board.discs(board.side()), board.discs(board.side() ^ 1), SearchBoard.square(move)});
+                board.play(move);
+            }
+        }
+        own = new long[positions.size()];
+        opp = new long[positions.size()];
+        squares = new int[positions.size()];
+        for (int i = 0; i < positions.size(); i++) {
+            own[i] = positions.get(i)[0];
+            opp[i] = positions.get(i)[1];
+            squares[i] = (int) positions.get(i)[2];
+        }
+    }
+
+    /**
+     * Times an operation over all positions.
+     *
+     * @param rounds    The number of timed rounds.
+     * @param operation The operation; it returns a value that depends on all its work.
+     * @return The fastest time per position in nanoseconds.
+     */
+    private double time(int rounds, Operation operation) {
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (int repeat = 0; repeat < REPEATS; repeat++) {
+                for (int i = 0; i < own.length; i++) {
+                    sink += operation.run(i);
+                }
+            }
+            best = Math.min(best, (System.nanoTime() - start) / ((double) REPEATS * own.length));
+        }
+        return best;
+    }
+
+    /**
+     * One measured call on the position with the given index.
+     */
+    private interface Operation {
+        long run(int index);
+    }
+
+    /**
+     * Reference flip computation: walks the eight directions square by square.
+     */
+    private static long walkFlips(int square, long own, long opp) {
+        long flipped = 0L;
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            long run = 0L;
+            long next = BitBoard.shift(1L << square, direction);
+            while ((next & opp) != 0) {
+                run |= next;
+                next = BitBoard.shift(next, direction);
+            }
+            if ((next & own) != 0) {
+                flipped |= run;
+            }
+        }
+        return flipped;
+    }
+
+    /**
+     * Reference move generation: fills the opponent runs one direction after the other.
+     */
+    private static long walkMoves(long own, long opp) {
+        long empty = ~(own | opp);
+        long moves = 0L;
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            long run = BitBoard.shift(own, direction) & opp;
+            for (int step = 0; step < BitBoard.SIZE - 3; step++) {
+                run |= BitBoard.shift(run, direction) & opp;
+            }
+            moves |= BitBoard.shift(run, direction) & empty;
+        }
+        return moves;
+    }
+
+    private void report(String name, double reference, double current) {
+        System.out.printf("%-16s walk %6.1f ns   bitboard %6.1f ns   %.2fx%n", name, reference, current, reference / current);
+    }
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+        BitBoardBenchmark benchmark = new BitBoardBenchmark();
+        System.out.println(benchmark.own.length + " positions from " + SUITE_GAMES + " random games");
+
+        long[] own = benchmark.own;
+        long[] opp = benchmark.opp;
+        int[] squares = benchmark.squares;
+        for (int i = 0; i < own.length; i++) {
+            if (walkFlips(squares[i], own[i], opp[i]) != BitBoard.flips(squares[i], own[i], opp[i])
+                    || walkMoves(own[i], opp[i]) != BitBoard.potentialMoves(own[i], opp[i])) {
+                throw new IllegalStateException("Results differ from the reference in position " + i);
+            }
+        }
+
+        benchmark.time(rounds, i -> walkFlips(squares[i], own[i], opp[i])); // Warm-up
+        benchmark.time(rounds, i -> BitBoard.flips(squares[i], own[i], opp[i]));
+        benchmark.report("flips", benchmark.time(rounds, i -> walkFlips(squares[i], own[i], opp[i])),
+                benchmark.time(rounds, i -> BitBoard.flips(squares[i], own[i], opp[i])));
+
+        benchmark.time(rounds, i -> walkMoves(own[i], opp[i]));
+        benchmark.time(rounds, i -> BitBoard.potentialMoves(own[i], opp[i]));
+        benchmark.report("potential moves", benchmark.time(rounds, i -> walkMoves(own[i], opp[i])),
+                benchmark.time(rounds, i -> BitBoard.potentialMoves(own[i], opp[i])));
+        System.out.println("(checksum " + (benchmark.sink & 0xFF) + ")");
+    }
+}
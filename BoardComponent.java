@@ -0,0 +1,279 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A board drawn as one component, as an alternative to a grid of 64 buttons.
+ * The board is kept in an image of its own: {@link #refresh()} compares every square with what the image
+ * shows, redraws only the squares that differ and repaints only their area, so a move costs a few
+ * squares of drawing instead of restyling the whole board. The discs are drawn from sprites rendered once
+ * per disc type, owner and cell size.
+ * Like the button grid, it highlights the valid moves with their flip counts, and holding 'b' or 'v'
+ * while clicking places a bomb or an unflippable disc.
+ */
+public class BoardComponent extends JComponent {
+    private static final int CELL_SIZE = 55; // Preferred pixels per square
+    private static final Font FONT = new Font("DejaVu Sans", Font.PLAIN, 20); // Disc symbols and flip counts
+    private static final Color PLAYER_ONE_COLOR = Color.BLUE;
+    private static final Color PLAYER_TWO_COLOR = new Color(255, 0, 0);
+    private static final Color DARK_SQUARE = new Color(0, 0, 0);
+    private static final Color LIGHT_SQUARE = Color.WHITE;
+    private static final Color DARK_HINT = new Color(0, 100, 0); // Valid move on a dark square
+    private static final Color LIGHT_HINT = new Color(199, 255, 199); // Valid move on a light square
+    private static final int EMPTY = -1; // Square code of a square that was never drawn
+    private static final DiscType[] TYPES = DiscType.values();
+
+    private final PlayableLogic gameLogic;
+    private final int boardSize;
+    private final int[] drawn; // Code of what the image shows on each square, see squareCode
+    private final int[] codes; // Code of what each square should show, reused by every refresh
+    private BufferedImage image; // The whole board, drawn square by square
+    private BufferedImage[][] sprites; // [owner][disc type ordinal] at the current cell size
+    private int cellSize; // Pixels per square of the image and sprites
+    private boolean showColor = true; // Highlight the valid moves
+    private boolean showNumbers = true; // Write the flip count on the valid moves
+    private boolean hintsVisible = true; // False while an AI is to move
+    private boolean bombKeyPressed = false;
+    private boolean unflippedKeyPressed = false;
+    private Consumer<Position> clickListener;
+
+    /**
+     * Creates a board showing a game.
+     *
+     * @param gameLogic The game to show.
+     */
+    public BoardComponent(PlayableLogic gameLogic) {
+        this.gameLogic = gameLogic;
+        this.boardSize = gameLogic.getBoardSize();
+        this.drawn = new int[boardSize * boardSize];
+        this.codes = new int[boardSize * boardSize];
+        setPreferredSize(new Dimension(boardSize * CELL_SIZE, boardSize * CELL_SIZE));
+        setOpaque(true);
+        setupKeyBindings();
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int cell = Math.max(1, Math.min(getWidth(), getHeight()) / boardSize);
+                int row = e.getY() / cell;
+                int col = e.getX() / cell;
+                if (row < boardSize && col < boardSize && clickListener != null) {
+                    clickListener.accept(Position.of(row, col));
+                }
+            }
+        });
+    }
+
+    // Set up key bindings for 'b' and 'v' keys
+    private void setupKeyBindings() {
+        InputMap inputMap = getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        ActionMap actionMap = getActionMap();
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_B, 0, false), "bombPressed");
+        actionMap.put("bombPressed", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                bombKeyPressed = true;
+            }
+        });
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_B, 0, true), "bombReleased");
+        actionMap.put("bombReleased", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                bombKeyPressed = false;
+            }
+        });
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_V, 0, false), "unflippedPressed");
+        actionMap.put("unflippedPressed", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                unflippedKeyPressed = true;
+            }
+        });
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_V, 0, true), "unflippedReleased");
+        actionMap.put("unflippedReleased", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                unflippedKeyPressed = false;
+            }
+        });
+    }
+
+    /**
+     * Sets what happens when a square is clicked.
+     *
+     * @param clickListener Receives the clicked position.
+     */
+    public void setClickListener(Consumer<Position> clickListener) {
+        this.clickListener = clickListener;
+    }
+
+    /**
+     * Creates the disc a human player places with a click, depending on the keys held down.
+     *
+     * @param player The player to move.
+     * @return A bomb while 'b' is held, an unflippable disc while 'v' is held, a simple disc otherwise.
+     */
+    public Disc discFor(Player player) {
+        if (bombKeyPressed) {
+            return new BombDisc(player);
+        }
+        return unflippedKeyPressed ? new UnflippableDisc(player) : new SimpleDisc(player);
+    }
+
+    public void setShowColor(boolean showColor) {
+        this.showColor = showColor;
+        refresh();
+    }
+
+    public void setShowNumbers(boolean showNumbers) {
+        this.showNumbers = showNumbers;
+        refresh();
+    }
+
+    /**
+     * Shows or hides the valid-move overlay, which is only useful while a human is to move.
+     *
+     * @param hintsVisible True to show the overlay.
+     */
+    public void setHintsVisible(boolean hintsVisible) {
+        this.hintsVisible = hintsVisible;
+        refresh();
+    }
+
+    /**
+     * Brings the board up to date with the game: the squares that changed are redrawn and repainted.
+     * Until the game has both players, the board is shown empty.
+     * Must be called on the event dispatch thread after every change to the game.
+     */
+    public void refresh() {
+        if (!ensureImage()) {
+            return; // Not laid out yet; the first paint draws everything
+        }
+        boolean started = gameLogic.getFirstPlayer() != null && gameLogic.getSecondPlayer() != null;
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                Disc disc = started ? gameLogic.getDiscAtPosition(Position.of(row, col)) : null;
+                codes[row * boardSize + col] = squareCode(disc, -1);
+            }
+        }
+        if (started && hintsVisible && showColor) {
+            for (Position p : gameLogic.ValidMoves()) {
+                codes[p.row() * boardSize + p.col()] = squareCode(null, showNumbers ? gameLogic.countFlips(p) : 0);
+            }
+        }
+        Graphics2D g = image.createGraphics();
+        try {
+            prepare(g);
+            for (int square = 0; square < codes.length; square++) {
+                if (codes[square] != drawn[square]) {
+                    drawSquare(g, square, codes[square]);
+                    drawn[square] = codes[square];
+                    repaint(square % boardSize * cellSize, square / boardSize * cellSize, cellSize, cellSize);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Encodes what a square shows, so that squares can be compared with the image.
+     *
+     * @param disc  The disc on the square, or null.
+     * @param flips For an empty square, -1 when it is no valid move, else the flip count to show (0 for none).
+     * @return The code: owner and disc type for discs, the flip count for hints.
+     */
+    private static int squareCode(Disc disc, int flips) {
+        if (disc != null) {
+            return (disc.getOwner().isPlayerOne() ? 1 : 2) << 8 | DiscType.of(disc).ordinal();
+        }
+        return flips < 0 ? 0 : 3 << 8 | flips;
+    }
+
+    /**
+     * Makes sure the image and sprites match the component size; a new image is drawn in full.
+     *
+     * @return False if the component has no size yet.
+     */
+    private boolean ensureImage() {
+        int cell = Math.min(getWidth(), getHeight()) / boardSize;
+        if (cell <= 0) {
+            return false;
+        }
+        if (image == null || cell != cellSize) {
+            cellSize = cell;
+            image = new BufferedImage(cell * boardSize, cell * boardSize, BufferedImage.TYPE_INT_RGB);
+            sprites = new BufferedImage[2][TYPES.length];
+            for (int owner = 0; owner < 2; owner++) {
+                for (DiscType type : TYPES) {
+                    sprites[owner][type.ordinal()] = renderSprite(type, owner == 0 ? PLAYER_ONE_COLOR : PLAYER_TWO_COLOR);
+                }
+            }
+            Arrays.fill(drawn, EMPTY);
+            repaint();
+        }
+        return true;
+    }
+
+    /**
+     * Draws the symbol of a disc type once, in the color of its owner, on a transparent square.
+     */
+    private BufferedImage renderSprite(DiscType type, Color color) {
+        BufferedImage sprite = new BufferedImage(cellSize, cellSize, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = sprite.createGraphics();
+        try {
+            prepare(g);
+            g.setColor(color);
+            drawCentered(g, type.symbol(), 0, 0);
+        } finally {
+            g.dispose();
+        }
+        return sprite;
+    }
+
+    private void drawSquare(Graphics2D g, int square, int code) {
+        int row = square / boardSize;
+        int col = square % boardSize;
+        int x = col * cellSize;
+        int y = row * cellSize;
+        boolean dark = (row + col) % 2 != 0;
+        int kind = code >>> 8; // 0 empty, 1 or 2 a disc of that player, 3 a valid move
+        g.setColor(kind == 3 ? (dark ? DARK_HINT : LIGHT_HINT) : (dark ? DARK_SQUARE : LIGHT_SQUARE));
+        g.fillRect(x, y, cellSize, cellSize);
+        if (kind == 1 || kind == 2) {
+            g.drawImage(sprites[kind - 1][code & 0xFF], x, y, null);
+        } else if (kind == 3 && (code & 0xFF) > 0) {
+            g.setColor(Color.black);
+            drawCentered(g, Integer.toString(code & 0xFF), x, y);
+        }
+    }
+
+    private void prepare(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(FONT);
+    }
+
+    private void drawCentered(Graphics2D g, String text, int x, int y) {
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, x + (cellSize - metrics.stringWidth(text)) / 2,
+                y + (cellSize - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (ensureImage() && drawn[0] == EMPTY) {
+            refresh(); // The image was just created
+        }
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (image != null) {
+            g.drawImage(image, 0, 0, null); // Only the clip area is copied
+        }
+    }
+}
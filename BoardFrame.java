@@ -0,0 +1,181 @@
+import javax.swing.*;
+import javax.swing.plaf.ColorUIResource;
+import java.awt.*;
+
+/**
+ * The game window built around a {@link BoardComponent} instead of a grid of buttons.
+ * It offers the same controls as GUI_for_chess_like_games: the AI speed slider, the color and number hints,
+ * Back and Reset, and the win counts. After each move only the squares that changed are redrawn, so
+ * AI-vs-AI games stay smooth with the slider at zero.
+ *
+ * Run it with: java BoardFrame
+ */
+public class BoardFrame extends JFrame {
+    private final PlayableLogic gameLogic;
+    private final BoardComponent board;
+    private final JLabel turnLabel = new JLabel("Player 1's Turn");
+    private final JLabel playerTowWinsLabel = new JLabel("Player 2 Wins: 0");
+    private final JLabel playerOneWinsLabel = new JLabel("Player 1 Wins: 0");
+    private final JSlider aiSpeedSlider = new JSlider(JSlider.VERTICAL, 0, 2000, 1000); // Delay before each AI move
+    private final JCheckBox numbersCheckBox = new JCheckBox();
+    private boolean isAITurn = false;
+    private final Timer timer;
+
+    /**
+     * Creates the window.
+     *
+     * @param gameLogic The game to play.
+     * @param title     The window title.
+     */
+    public BoardFrame(PlayableLogic gameLogic, String title) {
+        super(title);
+        this.gameLogic = gameLogic;
+        this.board = new BoardComponent(gameLogic);
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        board.setClickListener(this::squareClicked);
+
+        timer = new Timer(aiSpeedSlider.getValue(), e -> aiTurn());
+        timer.setRepeats(false);
+
+        aiSpeedSlider.setMajorTickSpacing(500);
+        aiSpeedSlider.setMinorTickSpacing(250);
+        aiSpeedSlider.setPaintTicks(true);
+        aiSpeedSlider.setPaintLabels(true);
+        JCheckBox colorCheckBox = new JCheckBox();
+        colorCheckBox.setSelected(true);
+        colorCheckBox.addActionListener(e -> {
+            numbersCheckBox.setEnabled(colorCheckBox.isSelected());
+            board.setShowColor(colorCheckBox.isSelected());
+        });
+        numbersCheckBox.setSelected(true);
+        numbersCheckBox.addActionListener(e -> board.setShowNumbers(numbersCheckBox.isSelected()));
+        JPanel sliderPanel = new JPanel();
+        sliderPanel.setLayout(new BoxLayout(sliderPanel, BoxLayout.Y_AXIS));
+        sliderPanel.add(new JLabel("Show Color:"));
+        sliderPanel.add(colorCheckBox);
+        sliderPanel.add(new JLabel("Show Numbers:"));
+        sliderPanel.add(numbersCheckBox);
+        sliderPanel.add(new JLabel("AI Speed:"));
+        sliderPanel.add(aiSpeedSlider);
+        add(sliderPanel, BorderLayout.WEST);
+
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JButton backButton = new JButton("Back");
+        backButton.addActionListener(e -> {
+            gameLogic.undoLastMove();
+            updateBoard();
+        });
+        topPanel.add(backButton);
+        playerOneWinsLabel.setForeground(Color.blue);
+        topPanel.add(playerOneWinsLabel);
+        turnLabel.setForeground(Color.blue);
+        topPanel.add(turnLabel);
+        playerTowWinsLabel.setForeground(Color.red);
+        topPanel.add(playerTowWinsLabel);
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> resetGame());
+        topPanel.add(resetButton);
+        add(topPanel, BorderLayout.NORTH);
+
+        add(board, BorderLayout.CENTER);
+        pack();
+        setLocationRelativeTo(null);
+    }
+
+    private Player currentPlayer() {
+        return gameLogic.isFirstPlayerTurn() ? gameLogic.getFirstPlayer() : gameLogic.getSecondPlayer();
+    }
+
+    private void squareClicked(Position position) {
+        if (isAITurn || !currentPlayer().isHuman()) {
+            return; // Ignore clicks while an AI is to move
+        }
+        if (!performMove(position, board.discFor(currentPlayer()))) {
+            return;
+        }
+        scheduleAI();
+        updateBoard();
+    }
+
+    /**
+     * Plays the move of the AI to move, then waits for the next AI move or for the human.
+     */
+    private void aiTurn() {
+        Player player = currentPlayer();
+        if (!player.isHuman()) {
+            Move aiMove = ((AIPlayer) player).makeMove(gameLogic);
+            performMove(aiMove.position(), aiMove.disc());
+        }
+        scheduleAI();
+        updateBoard();
+    }
+
+    private void scheduleAI() {
+        isAITurn = !currentPlayer().isHuman();
+        if (isAITurn) {
+            timer.setInitialDelay(aiSpeedSlider.getValue());
+            timer.restart();
+        }
+    }
+
+    // Return true only if performed the move, or if the game was lost on time instead
+    private boolean performMove(Position move, Disc disc) {
+        if (!gameLogic.locate_disc(move, disc)) {
+            if (!gameLogic.isGameFinished()) {
+                return false; // An illegal move
+            }
+            gameLogic.reset(); // The player to move ran out of time
+            return true;
+        }
+        if (gameLogic.isGameFinished()) {
+            gameLogic.reset();
+        }
+        return true;
+    }
+
+    /**
+     * Updates the turn label, the win counts and the board after a change to the game.
+     */
+    public void updateBoard() {
+        if (!gameLogic.isFirstPlayerTurn()) {
+            turnLabel.setForeground(Color.red);
+            turnLabel.setText("Player 2's Turn");
+        } else {
+            turnLabel.setForeground(Color.blue);
+            turnLabel.setText("Player 1's Turn");
+        }
+        playerTowWinsLabel.setText("Player 2 Wins: " + gameLogic.getSecondPlayer().getWins());
+        playerOneWinsLabel.setText("Player 1 Wins: " + gameLogic.getFirstPlayer().getWins());
+        board.setHintsVisible(!isAITurn); // Refreshes the board
+    }
+
+    /**
+     * Starts a new game, and lets the AI move first if player 1 is an AI.
+     */
+    public void resetGame() {
+        timer.stop();
+        gameLogic.reset();
+        scheduleAI();
+        updateBoard();
+    }
+
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> {
+            UIManager.put("Button.focus", new ColorUIResource(new Color(0, 0, 0, 0)));
+            UIManager.put("Button.select", new ColorUIResource(new Color(0, 0, 0, 0)));
+            AIPlayer.registerAllAIPlayers();
+            PlayableLogic gameLogic = new GameLogic();
+            BoardFrame frame = new BoardFrame(gameLogic, "Reversi Game");
+            frame.setVisible(true);
+
+            Main.PlayerSelectionDialog dialog = new Main.PlayerSelectionDialog(frame);
+            dialog.setVisible(true);
+            Player firstPlayer = dialog.isFirstPlayerHuman() ? new HumanPlayer(true)
+                    : AIPlayer.createAIPlayer(dialog.getSelectedFirstPlayerAI(), true);
+            Player secondPlayer = dialog.isSecondPlayerHuman() ? new HumanPlayer(false)
+                    : AIPlayer.createAIPlayer(dialog.getSelectedSecondPlayerAI(), false);
+            gameLogic.setPlayers(firstPlayer, secondPlayer);
+            frame.resetGame();
+        });
+    }
+}
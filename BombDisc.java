@@ -43,6 +43,6 @@ public class BombDisc implements Disc {
      */
     @Override
     public String getType() {
-        return "💣";
+        return DiscType.BOMB.symbol();
     }
 }
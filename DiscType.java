@@ -0,0 +1,66 @@
+/**
+ * The kinds of discs that can be placed on the board.
+ * Rule code switches on this enum; the emoji symbol is only used to render a disc.
+ */
+public enum DiscType {
+    SIMPLE("⬤"),
+    UNFLIPPABLE("⭕"),
+    BOMB("💣");
+
+    private final String symbol; // The emoji used to display the disc
+
+    DiscType(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Gets the emoji used to display discs of this type.
+     *
+     * @return The display symbol.
+     */
+    public String symbol() {
+        return this.symbol;
+    }
+
+    /**
+     * Creates a new disc of this type.
+     *
+     * @param owner The player who owns the new disc.
+     * @return A disc of this type owned by the player.
+     */
+    public Disc create(Player owner) {
+        switch (this) {
+            case UNFLIPPABLE:
+                return new UnflippableDisc(owner);
+            case BOMB:
+                return new BombDisc(owner);
+            default:
+                return new SimpleDisc(owner);
+        }
+    }
+
+    /**
+     * Gets the type of a disc.
+     * The disc classes of this game are resolved by class; other implementations by their symbol.
+     *
+     * @param disc The disc to check.
+     * @return The type of the disc.
+     */
+    public static DiscType of(Disc disc) {
+        if (disc instanceof SimpleDisc) {
+            return SIMPLE;
+        }
+        if (disc instanceof BombDisc) {
+            return BOMB;
+        }
+        if (disc instanceof UnflippableDisc) {
+            return UNFLIPPABLE;
+        }
+        for (DiscType type : values()) {
+            if (type.symbol.equals(disc.getType())) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown disc type: " + disc.getType());
+    }
+}
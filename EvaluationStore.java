@@ -0,0 +1,348 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A persistent store of search results, kept in a memory-mapped file so that evaluations survive
+ * the JVM and are shared by every run that opens the same file.
+ *
+ * Positions are keyed by their canonical Zobrist hash: the smallest hash over the eight symmetries
+ * of the board, so a position and its rotations and reflections share one record. The best move is
+ * stored in the canonical orientation and mapped back on lookup.
+ *
+ * The file is an open-addressing hash table of fixed-size records after a small header.
+ * A record is two longs: the packed result, then the key XORed with it. A record is only valid if
+ * the second long matches the key, so a record torn by a crash between the two writes reads as empty
+ * rather than as a wrong result; a crash can lose recent entries but never corrupt the store.
+ *
+ * The compaction tool rewrites a store into a new file, dropping torn records and optionally changing
+ * the capacity or dropping shallow results:
+ * java EvaluationStore compact input-file output-file [capacity-log2] [min-depth]
+ * java EvaluationStore stats file
+ */
+public final class EvaluationStore implements AutoCloseable {
+    public static final String FILE_PROPERTY = "evaluation.store"; // System property naming the default store
+    public static final int DEFAULT_CAPACITY_LOG2 = 20; // 1M records, 16 MB
+
+    private static final long MAGIC = 0x424F4D4256414C31L; // "BOMBVAL1"
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 16;
+    private static final int MAX_PROBES = 8; // Slots tried from the home slot of a key
+    private static final long PRESENT = 1L << 23; // Set in every stored record
+    private static final int MAX_CAPACITY_LOG2 = 26; // A mapped buffer is limited to 2 GB
+
+    private static EvaluationStore shared; // The store named by FILE_PROPERTY, opened on first use
+    private static boolean sharedLoaded;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long mask;
+
+    private EvaluationStore(FileChannel channel, int capacityLog2) throws IOException {
+        this.channel = channel;
+        this.mask = (1L << capacityLog2) - 1;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacityLog2));
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long fileSize(int capacityLog2) {
+        return HEADER_SIZE + ((long) RECORD_SIZE << capacityLog2);
+    }
+
+    /**
+     * Opens a store, creating the file if it does not exist.
+     *
+     * @param file         The store file.
+     * @param capacityLog2 The log2 of the number of records of a new file; an existing file keeps its own.
+     * @return The store.
+     * @throws IOException If the file cannot be opened or is not a store.
+     */
+    public static EvaluationStore open(Path file, int capacityLog2) throws IOException {
+        if (capacityLog2 < 1 || capacityLog2 > MAX_CAPACITY_LOG2) {
+            throw new IllegalArgumentException("Capacity out of range: 2^" + capacityLog2);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                EvaluationStore store = new EvaluationStore(channel, capacityLog2);
+                store.buffer.putInt(8, capacityLog2);
+                store.buffer.putInt(12, RECORD_SIZE);
+                store.buffer.putLong(0, MAGIC); // Written last: a file without it is rejected
+                store.buffer.force();
+                return store;
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            int existingLog2 = header.getInt(8);
+            if (header.getLong(0) != MAGIC || header.getInt(12) != RECORD_SIZE
+                    || existingLog2 < 1 || existingLog2 > MAX_CAPACITY_LOG2 || channel.size() != fileSize(existingLog2)) {
+                throw new IOException("Not an evaluation store: " + file);
+            }
+            return new EvaluationStore(channel, existingLog2);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the store named by the {@value #FILE_PROPERTY} system property, shared by every engine.
+     *
+     * @return The store, or null if the property is not set or the file cannot be opened.
+     */
+    public static synchronized EvaluationStore shared() {
+        if (!sharedLoaded) {
+            sharedLoaded = true;
+            String name = System.getProperty(FILE_PROPERTY);
+            if (name != null) {
+                try {
+                    shared = open(Paths.get(name), DEFAULT_CAPACITY_LOG2);
+                } catch (IOException e) {
+                    System.err.println("Could not open evaluation store: " + e.getMessage());
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Finds the canonical orientation of a position: the one with the smallest hash.
+     *
+     * @param position The position.
+     * @param hashes   Receives the hash of every orientation.
+     * @return The symmetry that maps the position to its canonical form.
+     */
+    private static int canonicalSymmetry(GameSnapshot position, long[] hashes) {
+        int best = 0;
+        for (int symmetry = 0; symmetry < BitBoard.SYMMETRIES; symmetry++) {
+            hashes[symmetry] = position.transform(symmetry).hash();
+            if (Long.compareUnsigned(hashes[symmetry], hashes[best]) < 0) {
+                best = symmetry;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param position The position.
+     * @param minDepth The smallest search depth that is good enough.
+     * @return The stored result, with the best move for this orientation, or null if there is none deep enough.
+     */
+    public SearchResult probe(GameSnapshot position, int minDepth) {
+        long[] hashes = new long[BitBoard.SYMMETRIES];
+        int symmetry = canonicalSymmetry(position, hashes);
+        long data = find(hashes[symmetry]);
+        if (data == 0 || depth(data) < minDepth) {
+            return null;
+        }
+        int move = move(data);
+        if (move != SearchBoard.NO_MOVE && move != SearchBoard.PASS) {
+            int square = BitBoard.transform(SearchBoard.square(move), BitBoard.inverse(symmetry));
+            move = SearchBoard.move(square, SearchBoard.type(move));
+        }
+        return new SearchResult(move, score(data), depth(data), 0, 0);
+    }
+
+    /**
+     * Stores a search result, unless a deeper one is already stored for the position.
+     *
+     * @param position The searched position.
+     * @param result   The result of the search.
+     */
+    public void store(GameSnapshot position, SearchResult result) {
+        long[] hashes = new long[BitBoard.SYMMETRIES];
+        int symmetry = canonicalSymmetry(position, hashes);
+        int move = result.bestMove();
+        if (move != SearchBoard.NO_MOVE && move != SearchBoard.PASS) {
+            move = SearchBoard.move(BitBoard.transform(SearchBoard.square(move), symmetry), SearchBoard.type(move));
+        }
+        put(hashes[symmetry], pack(result.depth(), result.score(), move));
+    }
+
+    private static long pack(int depth, int score, int move) {
+        return ((long) score << 32) | PRESENT | ((long) Math.min(depth, 255) << 12) | (move + 1);
+    }
+
+    private static int depth(long data) {
+        return (int) (data >>> 12) & 0xFF;
+    }
+
+    private static int score(long data) {
+        return (int) (data >> 32);
+    }
+
+    private static int move(long data) {
+        return (int) (data & 0xFFF) - 1;
+    }
+
+    private static long offset(long slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    /**
+     * Reads the record of a key.
+     *
+     * @return The packed result, or 0 if the key is not stored.
+     */
+    private synchronized long find(long key) {
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            long offset = offset((key + probe) & mask);
+            long data = buffer.getLong((int) offset);
+            if (data == 0) {
+                return 0; // Records are never removed, so the key is not further on
+            }
+            if ((buffer.getLong((int) offset + 8) ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Writes the record of a key into its slot, the first free slot, or the shallowest slot probed.
+     */
+    private synchronized void put(long key, long data) {
+        long target = -1;
+        int shallowest = Integer.MAX_VALUE;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            long offset = offset((key + probe) & mask);
+            long stored = buffer.getLong((int) offset);
+            boolean valid = stored != 0 && (buffer.getLong((int) offset + 8) ^ stored) == key;
+            if (stored == 0 || valid) {
+                if (valid && depth(stored) > depth(data)) {
+                    return; // Keep the deeper result
+                }
+                target = offset;
+                break;
+            }
+            if (depth(stored) < shallowest) {
+                shallowest = depth(stored);
+                target = offset;
+            }
+        }
+        buffer.putLong((int) target, data);
+        buffer.putLong((int) target + 8, key ^ data); // Validates the record
+    }
+
+    /**
+     * Counts the valid records.
+     *
+     * @return The number of stored results.
+     */
+    public synchronized long size() {
+        long count = 0;
+        for (long slot = 0; slot <= mask; slot++) {
+            if (buffer.getLong((int) offset(slot)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of records the file holds.
+     *
+     * @return The capacity.
+     */
+    public long capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Writes the modified pages to the disk.
+     */
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Flushes and closes the store.
+     *
+     * @throws IOException If closing the file fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Copies every valid record of a store into a new store file.
+     * Records whose key cannot be recovered (torn by a crash) are dropped.
+     *
+     * @param input        The store to compact.
+     * @param output       The new store file; it is replaced if it exists.
+     * @param capacityLog2 The log2 of the number of records of the new store.
+     * @param minDepth     Results shallower than this are dropped.
+     * @return The number of records copied.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static long compact(Path input, Path output, int capacityLog2, int minDepth) throws IOException {
+        if (!Files.isRegularFile(input)) {
+            throw new IOException("No such store: " + input);
+        }
+        Path temporary = output.resolveSibling(output.getFileName() + ".tmp");
+        Files.deleteIfExists(temporary);
+        long copied = 0;
+        try (EvaluationStore source = open(input, capacityLog2);
+             EvaluationStore target = open(temporary, capacityLog2)) {
+            boolean[] depths = new boolean[256]; // Depths present in the source
+            for (long slot = 0; slot <= source.mask; slot++) {
+                long data = source.buffer.getLong((int) offset(slot));
+                depths[depth(data)] |= data != 0;
+            }
+            // Deeper records first, so they are never pushed out by shallow ones in a smaller table
+            for (int depth = 255; depth >= minDepth; depth--) {
+                if (!depths[depth]) {
+                    continue;
+                }
+                for (long slot = 0; slot <= source.mask; slot++) {
+                    long offset = offset(slot);
+                    long data = source.buffer.getLong((int) offset);
+                    if (data == 0 || depth(data) != depth || (data & PRESENT) == 0) {
+                        continue;
+                    }
+                    long key = source.buffer.getLong((int) offset + 8) ^ data;
+                    if (!source.isHomeOf(key, slot)) {
+                        continue; // Torn record: the key does not lead to this slot
+                    }
+                    target.put(key, data);
+                    copied++;
+                }
+            }
+        }
+        Files.move(temporary, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return copied;
+    }
+
+    /**
+     * Checks whether a key probes the given slot.
+     */
+    private boolean isHomeOf(long key, long slot) {
+        return ((slot - key) & mask) < MAX_PROBES;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("compact")) {
+            int capacityLog2 = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CAPACITY_LOG2;
+            int minDepth = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+            long copied = compact(Paths.get(args[1]), Paths.get(args[2]), capacityLog2, minDepth);
+            System.out.println("Copied " + copied + " records to " + args[2]);
+        } else if (args.length == 2 && args[0].equals("stats") && Files.isRegularFile(Paths.get(args[1]))) {
+            try (EvaluationStore store = open(Paths.get(args[1]), DEFAULT_CAPACITY_LOG2)) {
+                System.out.printf("%d of %d records used%n", store.size(), store.capacity());
+            }
+        } else {
+            System.out.println("Usage: java EvaluationStore compact input-file output-file [capacity-log2] [min-depth]");
+            System.out.println("       java EvaluationStore stats file");
+        }
+    }
+}
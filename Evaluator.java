@@ -0,0 +1,13 @@
+/**
+ * A static evaluation function used by the search AIs at the leaves of the search tree.
+ */
+public interface Evaluator {
+
+    /**
+     * Evaluates a position that is not over.
+     *
+     * @param board The position to evaluate.
+     * @return The score from the point of view of the side to move; higher is better.
+     */
+    int evaluate(SearchBoard board);
+}
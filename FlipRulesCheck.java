@@ -0,0 +1,222 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Differential check of GameLogic's flip rules against the original implementation, which walked the
+ * board square by square and resolved bomb chains by recursion. The reference below is that code,
+ * kept as it was apart from reading the board from an array and the disc type from {@link DiscType}.
+ * On every position, getFlips, countFlips and ValidMoves of GameLogic must agree with it on every empty square.
+ *
+ * The positions are random boards with many bombs and unflippable discs, where chains and blocked runs are
+ * common, and the positions of random games in which special discs are played often.
+ * Any disagreement is printed with the position in the snapshot notation, and the check fails.
+ *
+ * Run it with: java FlipRulesCheck [positions] [seed]
+ */
+public class FlipRulesCheck {
+    private static final int DEFAULT_POSITIONS = 20_000; // Random boards; as many game positions again
+    private static final int MAX_REPORTED = 10; // Disagreements printed in full
+    private static final int[][] DIRECTIONS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    private final Player player1 = new HumanPlayer(true);
+    private final Player player2 = new HumanPlayer(false);
+    private final GameLogic game = new GameLogic();
+    private final Disc[][] board = new Disc[BitBoard.SIZE][BitBoard.SIZE]; // The reference's copy of the board
+    private long squares; // Empty squares compared
+    private int mismatches;
+
+    public FlipRulesCheck() {
+        game.setPlayers(player1, player2);
+    }
+
+    /**
+     * Compares GameLogic with the reference on one position.
+     *
+     * @param position The position.
+     */
+    public void check(GameSnapshot position) {
+        game.restore(position);
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            for (int col = 0; col < BitBoard.SIZE; col++) {
+                board[row][col] = game.getDiscAtPosition(Position.of(row, col));
+            }
+        }
+        Player mover = game.getCurrentPlayer();
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            Position p = Position.of(square);
+            if (board[p.row()][p.col()] != null) {
+                continue;
+            }
+            squares++;
+            long expected = mask(referenceFlips(p, mover));
+            long actual = mask(game.getFlips(p, new SimpleDisc(mover)));
+            if (actual != expected) {
+                report(position, "getFlips at " + p, expected, actual);
+            }
+            int expectedCount = referenceCountFlips(p, mover);
+            int actualCount = game.countFlips(p);
+            if (actualCount != expectedCount) {
+                report(position, "countFlips at " + p, expectedCount, actualCount);
+            }
+        }
+        long expected = mask(referenceValidMoves(mover));
+        long actual = mask(game.ValidMoves());
+        if (actual != expected) {
+            report(position, "ValidMoves", expected, actual);
+        }
+    }
+
+    private void report(GameSnapshot position, String what, long expected, long actual) {
+        if (++mismatches <= MAX_REPORTED) {
+            System.err.println(what + " differs in " + position + ": expected " + Long.toHexString(expected)
+                    + ", got " + Long.toHexString(actual));
+        }
+    }
+
+    private static long mask(List<Position> positions) {
+        long mask = 0L;
+        for (Position p : positions) {
+            mask |= 1L << p.index();
+        }
+        return mask;
+    }
+
+    // ---- The original rules ----
+
+    private List<Position> referenceValidMoves(Player mover) {
+        List<Position> validMoves = new ArrayList<>();
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            for (int col = 0; col < BitBoard.SIZE; col++) {
+                if (board[row][col] == null) {
+                    List<Position> flips = referenceFlips(Position.of(row, col), mover);
+                    if (!flips.isEmpty() && referenceCountFlips(Position.of(row, col), mover) > 0) {
+                        validMoves.add(Position.of(row, col));
+                    }
+                }
+            }
+        }
+        return validMoves;
+    }
+
+    private int referenceCountFlips(Position a, Player mover) {
+        int countUnflipp = 0;
+        List<Position> flips = referenceFlips(a, mover);
+        for (Position flip : flips) {
+            if (DiscType.of(board[flip.row()][flip.col()]) == DiscType.UNFLIPPABLE) {
+                countUnflipp++;
+            }
+        }
+        return flips.size() - countUnflipp;
+    }
+
+    private List<Position> referenceFlips(Position position, Player mover) {
+        List<Position> flips = new ArrayList<>();
+        for (int[] dir : DIRECTIONS) {
+            List<Position> potentialFlips = new ArrayList<>();
+            int row = position.row() + dir[0];
+            int col = position.col() + dir[1];
+            while (inside(row, col) && board[row][col] != null && board[row][col].getOwner() != mover) {
+                Position tempPos = Position.of(row, col);
+                potentialFlips.add(tempPos);
+                if (DiscType.of(board[row][col]) == DiscType.BOMB) {
+                    List<Position> tempPosBomb = referenceBombFlips(tempPos, potentialFlips, mover);
+                    potentialFlips.addAll(tempPosBomb);
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+            if (inside(row, col) && board[row][col] != null && board[row][col].getOwner() == mover) {
+                flips.addAll(potentialFlips);
+            }
+        }
+        List<Position> unique = new ArrayList<>();
+        for (Position p : flips) {
+            if (!unique.contains(p)) {
+                unique.add(p);
+            }
+        }
+        return unique;
+    }
+
+    private List<Position> referenceBombFlips(Position position, List<Position> potentialFlips, Player mover) {
+        potentialFlips.add(position);
+        for (int[] dir : DIRECTIONS) {
+            int row = position.row() + dir[0];
+            int col = position.col() + dir[1];
+            if (inside(row, col) && board[row][col] != null && board[row][col].getOwner() != mover) {
+                Position tempPos = Position.of(row, col);
+                if (!potentialFlips.contains(tempPos)) {
+                    potentialFlips.add(tempPos);
+                    if (DiscType.of(board[row][col]) == DiscType.BOMB) {
+                        referenceBombFlips(tempPos, potentialFlips, mover);
+                    }
+                }
+            }
+        }
+        return potentialFlips;
+    }
+
+    private static boolean inside(int row, int col) {
+        return row >= 0 && row < BitBoard.SIZE && col >= 0 && col < BitBoard.SIZE;
+    }
+
+    // ---- Positions ----
+
+    /**
+     * Fills a board at random: a random share of the squares, each with a random owner and, at random rates
+     * of up to one half and one third, a bomb or an unflippable disc.
+     */
+    private static GameSnapshot randomBoard(SplittableRandom random) {
+        SearchBoard board = new SearchBoard();
+        double fill = random.nextDouble();
+        double bombRate = random.nextDouble() * 0.5;
+        double unflippableRate = random.nextDouble() * 0.3;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            if (random.nextDouble() < fill) {
+                double type = random.nextDouble();
+                board.put(square, random.nextInt(2), type < bombRate ? DiscType.BOMB
+                        : type < bombRate + unflippableRate ? DiscType.UNFLIPPABLE : DiscType.SIMPLE);
+            }
+        }
+        board.setInventory(0, 3, 2);
+        board.setInventory(1, 3, 2);
+        board.setSide(random.nextInt(2));
+        return GameSnapshot.of(board);
+    }
+
+    /**
+     * Plays a random game, special discs included, and collects the positions where the side to move has a move.
+     */
+    private static void randomGame(SplittableRandom random, List<GameSnapshot> positions) {
+        SearchBoard board = SearchBoard.initial();
+        int[] moves = new int[SearchBoard.MAX_MOVES];
+        while (!board.isGameOver()) {
+            int count = board.generateMoves(moves);
+            if (count == 0) {
+                board.play(SearchBoard.PASS);
+                continue;
+            }
+            positions.add(GameSnapshot.of(board));
+            board.play(moves[random.nextInt(count)]);
+        }
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_POSITIONS;
+        SplittableRandom random = new SplittableRandom(args.length > 1 ? Long.parseLong(args[1]) : 1);
+        List<GameSnapshot> gamePositions = new ArrayList<>();
+        while (gamePositions.size() < count) {
+            randomGame(random, gamePositions);
+        }
+        FlipRulesCheck check = new FlipRulesCheck();
+        for (int i = 0; i < count; i++) {
+            check.check(randomBoard(random));
+            check.check(gamePositions.get(i));
+        }
+        System.out.println(2 * count + " positions, " + check.squares + " squares, " + check.mismatches + " disagreements");
+        if (check.mismatches > 0) {
+            throw new IllegalStateException("GameLogic disagrees with the original flip rules");
+        }
+    }
+}
@@ -0,0 +1,322 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the memory cost of the GameLogic design, to size servers by how many games fit in the heap.
+ *
+ * Retained heap per live game: many games are played to the same ply and kept alive together, then released,
+ * and the drop of the used heap after full collections is divided by their number. Measuring the release
+ * rather than the growth keeps garbage left over from earlier measurements out of the numbers. A game holds its Disc[][] with
+ * one object per disc, the move history (a Stack of Moves, each with its List of flipped positions) and two
+ * RandomAI players. The board alone is measured by keeping copies of the games' Disc[][] arrays instead of
+ * the games; the rest of a game is the difference. AI players are measured
+ * on their own, since their size depends on the type (AlphaBetaAI owns a transposition table).
+ *
+ * Allocation per call: the bytes the JVM counts as allocated by the current thread during a single call of
+ * ValidMoves, countFlips, locate_disc and each AI's makeMove, on positions of seeded random games. Each
+ * operation gets an unmeasured warm-up pass first, so the numbers reflect compiled code. The locate_disc
+ * figure includes the move report GameLogic prints, which is part of every call; nothing else measured prints.
+ *
+ * The results are tab-separated lines: benchmark, value, unit, samples. Lines starting with '#' describe
+ * the run (date, Java version, heap, garbage collector).
+ *
+ * Run it with: java FootprintBenchmark [output-file] [-games N]
+ */
+public class FootprintBenchmark {
+    private static final long SUITE_SEED = 20240101L; // Seed of the games the positions come from
+    private static final int SUITE_GAMES = 40; // Games the positions are taken from
+    private static final int SEARCH_SAMPLE_STEP = 20; // Only every this many positions is given to AlphaBetaAI
+    private static final int DEFAULT_RESIDENT_GAMES = 2000; // Games kept alive at once for the heap numbers
+    private static final int[] RESIDENT_PLIES = {0, 20, 40, 60}; // Plies the resident games are played to
+    private static final int RESIDENT_PLAYERS = 1000; // Players kept alive at once per AI type
+    private static final int RESIDENT_SEARCH_PLAYERS = 8; // The same for AlphaBetaAI, whose table is large
+    private static final String[] AI_TYPES = {"RandomAI", "GreedyAI", "AlphaBetaAI"};
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<GameSnapshot> positions = new ArrayList<>(); // Positions where the side to move has a move
+    private final PrintWriter output;
+    private long bracketBytes; // Bytes counted by an empty measurement, subtracted from every call
+
+    /**
+     * Creates the benchmark and its position suite.
+     *
+     * @param output The destination of the result lines.
+     */
+    public FootprintBenchmark(PrintWriter output) {
+        this.output = output;
+        SplittableRandom random = new SplittableRandom(SUITE_SEED);
+        int[] moves = new int[SearchBoard.MAX_MOVES];
+        for (int game = 0; game < SUITE_GAMES; game++) {
+            SearchBoard board = SearchBoard.initial();
+            while (!board.isGameOver()) {
+                int count = board.generateMoves(moves);
+                if (count == 0) {
+                    board.play(SearchBoard.PASS);
+                    continue;
+                }
+                positions.add(GameSnapshot.of(board));
+                board.play(moves[random.nextInt(count)]);
+            }
+        }
+    }
+
+    /**
+     * Runs every measurement and writes the results.
+     *
+     * @param residentGames The number of games kept alive at once for the heap numbers.
+     */
+    public void run(int residentGames) {
+        output.println("# date=" + Instant.now());
+        output.println("# java=" + System.getProperty("java.version") + " " + System.getProperty("java.vm.name"));
+        output.println("# maxHeap=" + Runtime.getRuntime().maxMemory());
+        StringBuilder collectors = new StringBuilder();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.append(collectors.length() == 0 ? "" : ",").append(collector.getName());
+        }
+        output.println("# gc=" + collectors);
+        output.println("# positions=" + positions.size() + " residentGames=" + residentGames);
+        output.println("benchmark\tvalue\tunit\tsamples");
+
+        long lastGameBytes = 0;
+        for (int plies : RESIDENT_PLIES) {
+            long game = retainedPerGame(residentGames, plies, false);
+            long board = retainedPerGame(residentGames, plies, true);
+            result("heap.game.ply" + plies, game, "bytes/game", residentGames);
+            result("heap.board.ply" + plies, board, "bytes/game", residentGames);
+            result("heap.historyAndPlayers.ply" + plies, game - board, "bytes/game", residentGames);
+            lastGameBytes = game;
+        }
+        result("heap.capacity.ply" + RESIDENT_PLIES[RESIDENT_PLIES.length - 1],
+                lastGameBytes > 0 ? Runtime.getRuntime().maxMemory() / lastGameBytes : 0, "games/maxHeap", residentGames);
+        for (String type : AI_TYPES) {
+            int players = type.equals("AlphaBetaAI") ? RESIDENT_SEARCH_PLAYERS : RESIDENT_PLAYERS;
+            result("heap.player." + type, retainedPerPlayer(type, players), "bytes/player", players);
+        }
+
+        bracketBytes = 0;
+        long start = allocated();
+        bracketBytes = allocated() - start; // What the measurement itself counts
+        GameLogic game = newGame(new RandomAI(true), new RandomAI(false));
+        measure("alloc.ValidMoves", game, positions, (g, square) -> g.ValidMoves());
+        measure("alloc.countFlips", game, positions, (g, square) -> g.countFlips(square));
+        measure("alloc.locate_disc", game, positions, (g, square) -> {
+            Disc disc = new SimpleDisc(g.getCurrentPlayer()); // Counted too: every caller creates the disc it places
+            return g.locate_disc(square, disc);
+        });
+        for (String type : AI_TYPES) {
+            AIPlayer first = AIPlayer.createAIPlayer(type, true);
+            AIPlayer second = AIPlayer.createAIPlayer(type, false);
+            for (AIPlayer player : new AIPlayer[]{first, second}) {
+                if (player instanceof AlphaBetaAI) {
+                    ((AlphaBetaAI) player).setPondering(false); // Its thread's allocations would not be counted
+                }
+            }
+            GameLogic aiGame = newGame(first, second);
+            List<GameSnapshot> sample = type.equals("AlphaBetaAI") ? every(SEARCH_SAMPLE_STEP) : positions;
+            measure("alloc.makeMove." + type, aiGame, sample,
+                    (g, square) -> ((AIPlayer) (g.isFirstPlayerTurn() ? g.getFirstPlayer() : g.getSecondPlayer())).makeMove(g));
+        }
+        output.flush();
+    }
+
+    private static GameLogic newGame(Player first, Player second) {
+        GameLogic game = new GameLogic();
+        game.setPlayers(first, second);
+        game.reset();
+        return game;
+    }
+
+    private List<GameSnapshot> every(int step) {
+        List<GameSnapshot> sample = new ArrayList<>();
+        for (int i = 0; i < positions.size(); i += step) {
+            sample.add(positions.get(i));
+        }
+        return sample;
+    }
+
+    private void result(String benchmark, double value, String unit, int samples) {
+        output.printf("%s\t%.1f\t%s\t%d%n", benchmark, value, unit, samples);
+    }
+
+    // ---- Retained heap ----
+
+    /**
+     * Keeps many games alive, each played at random to a ply, and measures the heap they hold.
+     *
+     * @param games     The number of games.
+     * @param plies     The number of moves played in each game, fewer if it ends first.
+     * @param boardOnly True to keep only copies of the board arrays, holding the same discs.
+     * @return The retained bytes per game.
+     */
+    private long retainedPerGame(int games, int plies, boolean boardOnly) {
+        Object[] kept = new Object[games];
+        for (int i = 0; i < games; i++) {
+            RandomAI first = new RandomAI(true);
+            RandomAI second = new RandomAI(false);
+            first.setRandom(new SplittableRandom(SUITE_SEED + 2L * i));
+            second.setRandom(new SplittableRandom(SUITE_SEED + 2L * i + 1));
+            GameLogic game = newGame(first, second);
+            for (int ply = 0; ply < plies && !isOver(game); ply++) {
+                AIPlayer current = game.isFirstPlayerTurn() ? first : second;
+                Move move = current.makeMove(game);
+                game.locate_disc(move.position(), move.disc());
+            }
+            kept[i] = boardOnly ? boardOf(game) : game;
+        }
+        long held = usedHeap();
+        Reference.reachabilityFence(kept);
+        Arrays.fill(kept, null);
+        return (held - usedHeap()) / games;
+    }
+
+    // Unlike isGameFinished, this neither credits a win nor prints the result
+    private static boolean isOver(GameLogic game) {
+        return game.getMobility(game.getFirstPlayer()) == 0 && game.getMobility(game.getSecondPlayer()) == 0;
+    }
+
+    private static Disc[][] boardOf(GameLogic game) {
+        int size = game.getBoardSize();
+        Disc[][] board = new Disc[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                board[row][col] = game.getDiscAtPosition(Position.of(row, col));
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Keeps players of one AI type alive and measures the heap they hold.
+     *
+     * @param type    The AI type.
+     * @param players The number of players.
+     * @return The retained bytes per player.
+     */
+    private long retainedPerPlayer(String type, int players) {
+        AIPlayer[] kept = new AIPlayer[players];
+        for (int i = 0; i < kept.length; i++) {
+            kept[i] = AIPlayer.createAIPlayer(type, i % 2 == 0);
+        }
+        long held = usedHeap();
+        Reference.reachabilityFence(kept);
+        Arrays.fill(kept, null);
+        return (held - usedHeap()) / kept.length;
+    }
+
+    /**
+     * Gets the heap that survives full collections, repeated until it stops shrinking.
+     * The usage the collector recorded at the end of its last collection is used, not the current usage,
+     * which would also count the allocation buffers handed out since.
+     */
+    private long usedHeap() {
+        long used = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < 10; attempt++) {
+            System.gc();
+            long now = heapAfterLastCollection();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    private static long heapAfterLastCollection() {
+        com.sun.management.GcInfo last = null;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            com.sun.management.GcInfo info = ((com.sun.management.GarbageCollectorMXBean) collector).getLastGcInfo();
+            if (info != null && (last == null || info.getEndTime() > last.getEndTime())) {
+                last = info;
+            }
+        }
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = last == null ? null : last.getMemoryUsageAfterGc().get(pool.getName());
+            if (pool.getType() == MemoryType.HEAP && usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+
+    // ---- Allocation per call ----
+
+    /**
+     * One call of the game interface whose allocations are counted.
+     */
+    private interface Operation {
+        /**
+         * @param game   The game, in the position being measured.
+         * @param square The first valid move of the position, found before counting starts.
+         * @return Any result, kept so that the work is not optimized away.
+         */
+        Object run(GameLogic game, Position square);
+    }
+
+    private long allocated() {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Counts the bytes allocated by an operation on every position of a sample, after a warm-up pass.
+     */
+    private void measure(String benchmark, GameLogic game, List<GameSnapshot> sample, Operation operation) {
+        Object sink = null;
+        long bytes = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            bytes = 0;
+            for (GameSnapshot position : sample) {
+                position.restoreInto(game);
+                Position square = game.ValidMoves().get(0);
+                long start = allocated();
+                sink = operation.run(game, square);
+                bytes += allocated() - start - bracketBytes;
+            }
+        }
+        Reference.reachabilityFence(sink); // The last result stays alive, so the work cannot be dropped
+        result(benchmark, bytes / (double) sample.size(), "bytes/op", sample.size());
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = null;
+        int residentGames = DEFAULT_RESIDENT_GAMES;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-games") && i + 1 < args.length) {
+                residentGames = Integer.parseInt(args[++i]);
+            } else {
+                file = args[i];
+            }
+        }
+        AIPlayer.registerAllAIPlayers();
+        StringWriter results = new StringWriter();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // GameLogic reports every move
+        try {
+            new FootprintBenchmark(new PrintWriter(results)).run(residentGames);
+        } finally {
+            System.setOut(out);
+        }
+        if (file != null) {
+            Files.writeString(Paths.get(file), results.toString(), StandardCharsets.UTF_8);
+        }
+        System.out.print(results);
+    }
+}
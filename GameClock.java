@@ -0,0 +1,117 @@
+/**
+ * The clocks of both players in one game under a {@link TimeControl}.
+ * Only the clock of the player to move runs. Stopping it charges the time of the move,
+ * adds the Fischer increment, and checks the per-move limit.
+ */
+public final class GameClock {
+    private static final long PER_MOVE_GRACE_NANOS = 50_000_000L; // Tolerance for scheduling delays with PER_MOVE
+
+    private final TimeControl control;
+    private final long[] remaining = new long[2]; // Time left of player 1 (index 0) and player 2
+    private final boolean[] flagged = new boolean[2]; // Set when a player ran out of time
+    private int running = -1; // Player whose clock runs, or -1
+    private long turnStart; // System.nanoTime() when the running clock was started
+
+    /**
+     * Constructs the clocks of a new game.
+     *
+     * @param control The time control.
+     */
+    public GameClock(TimeControl control) {
+        this.control = control;
+        remaining[0] = control.baseNanos();
+        remaining[1] = control.baseNanos();
+    }
+
+    public TimeControl control() {
+        return control;
+    }
+
+    /**
+     * Starts the clock of a player, stopping the other one first.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     */
+    public void start(int player) {
+        if (running >= 0) {
+            stop();
+        }
+        running = player;
+        turnStart = System.nanoTime();
+    }
+
+    /**
+     * Stops the running clock and charges the move to its player.
+     *
+     * @return The time the move took, in nanoseconds, or 0 if no clock was running.
+     */
+    public long stop() {
+        if (running < 0) {
+            return 0;
+        }
+        long elapsed = System.nanoTime() - turnStart;
+        switch (control.kind()) {
+            case PER_MOVE:
+                if (elapsed > control.baseNanos() + PER_MOVE_GRACE_NANOS) {
+                    flagged[running] = true;
+                }
+                break;
+            case FISCHER:
+                remaining[running] -= elapsed;
+                if (remaining[running] < 0) {
+                    flagged[running] = true;
+                } else {
+                    remaining[running] += control.incrementNanos();
+                }
+                break;
+            default:
+                remaining[running] -= elapsed;
+                if (remaining[running] < 0) {
+                    flagged[running] = true;
+                }
+                break;
+        }
+        running = -1;
+        return elapsed;
+    }
+
+    /**
+     * Gets the time a player has left, counting the move in progress.
+     * With a fixed time per move, this is the time left for the current move.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     * @return The remaining time in nanoseconds; negative once the player is out of time.
+     */
+    public long remainingNanos(int player) {
+        long elapsed = running == player ? System.nanoTime() - turnStart : 0;
+        if (control.kind() == TimeControl.Kind.PER_MOVE) {
+            return control.baseNanos() - elapsed;
+        }
+        return remaining[player] - elapsed;
+    }
+
+    /**
+     * Checks whether a player has run out of time, including during the move in progress.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     * @return True if the player lost on time.
+     */
+    public boolean isFlagged(int player) {
+        if (flagged[player]) {
+            return true;
+        }
+        long grace = control.kind() == TimeControl.Kind.PER_MOVE ? PER_MOVE_GRACE_NANOS : 0;
+        return running == player && remainingNanos(player) + grace < 0;
+    }
+
+    /**
+     * Allocates the time for the move of a player.
+     *
+     * @param player  0 for player 1, 1 for player 2.
+     * @param empties The number of empty squares, which tells the phase of the game and how many moves remain.
+     * @return A fresh budget for one search.
+     */
+    public TimeBudget budget(int player, int empties) {
+        return TimeBudget.allocate(control, remainingNanos(player), empties);
+    }
+}
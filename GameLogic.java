@@ -6,17 +6,24 @@ import java.util.*;
  * It implements the PlayableLogic interface.
  */
 public class GameLogic implements PlayableLogic {
-    public static Disc[][] board; // The game board (8x8 grid)
+    private final Disc[][] board; // The game board (8x8 grid), kept in step with the masks and counts below
     private Player player1; // The first player
     private Player player2; // The second player
-    private int countPlayer1, countPlayer2; // Counts of discs for each player
+    private final int[] discCounts = new int[2]; // Discs of the first (index 0) and second player
+    private final long[] discMasks = new long[2]; // Squares of the first (index 0) and second player
+    private long bombs; // Squares holding a bomb disc
+    private long unflippables; // Squares holding an unflippable disc
+    private final int[] typeCounts = new int[DiscType.values().length]; // Discs on the board by type ordinal
+    private int emptyCount = BitBoard.SQUARES; // Empty squares
+    private long frontier; // Discs next to at least one empty square
+    private final long[] legalCache = new long[2]; // Legal squares of each player, valid while legalValid is set
+    private boolean legalValid; // Cleared whenever a disc is placed, removed or changes owner
     private final int BOARD_SIZE = 8; // Fixed size of the board
     private boolean turn; // Tracks whose turn it is (true for player1, false for player2)
-    private int[][] directions = { // All possible directions for checking flips
-            {-1, -1}, {-1, 0}, {-1, 1},
-            {0, -1}, {0, 1},
-            {1, -1}, {1, 0}, {1, 1}};
     private Stack<Move> historyMove = new Stack<>(); // Stack to store the history of moves
+    private TimeControl timeControl = TimeControl.fromProperty(); // Time rules of new games, or null for untimed games
+    private GameClock clock; // Clocks of the current game, or null if untimed
+    private Player timeForfeit; // Player who ran out of time in the current game, or null
 
     /**
      * Constructor for GameLogic. Initializes the board and sets the initial turn.
@@ -28,6 +35,9 @@ public class GameLogic implements PlayableLogic {
 
     /**
      * Places a disc on the board at the specified position if the move is valid.
+     * The turn then goes to the opponent, unless the opponent has no valid move and passes.
+     * In a timed game, a player who has run out of time cannot move any more: the call returns false
+     * without changing anything, and {@link #checkTimeForfeit()} or {@link #isGameFinished()} ends the game.
      *
      * @param a    The position to place the disc.
      * @param disc The disc to be placed.
@@ -35,29 +45,50 @@ public class GameLogic implements PlayableLogic {
      */
     @Override
     public boolean locate_disc(Position a, Disc disc) {
+        if (timeForfeit != null || (clock != null && clock.isFlagged(indexOf(getCurrentPlayer())))) {
+            return false;
+        }
         if (getDiscAtPosition(a) == null && isContainPosition(ValidMoves(), a)) {
             if (!checkIfOkToPutBombOrUnflipp(disc))
                 return false;
-            board[a.row()][a.col()] = disc; // Place the disc on the board
-            board[a.row()][a.col()].setOwner(getCurrentPlayer()); // Set the owner of the disc
+            disc.setOwner(getCurrentPlayer()); // Set the owner of the disc
+            putDisc(a, disc); // Place the disc on the board
             System.out.println("Player " + getNumPlayer() + " placed a " + disc.getType() + " in " + a.toString());
 
             // Update player resources if placing special discs
-            if (board[a.row()][a.col()].getType().equals("⭕")) {
-                getCurrentPlayer().reduce_unflippedable();
-            }
-            if (board[a.row()][a.col()].getType().equals("💣")) {
-                getCurrentPlayer().reduce_bomb();
+            switch (DiscType.of(disc)) {
+                case UNFLIPPABLE:
+                    getCurrentPlayer().reduce_unflippedable();
+                    break;
+                case BOMB:
+                    getCurrentPlayer().reduce_bomb();
+                    break;
+                default:
+                    break;
             }
 
             // Save the move to the history stack
-            Move m = new Move(a, getCurrentPlayer(), disc, getFlips(a, disc));
+            List<Position> flips = getFlips(a, disc);
+            Move m = new Move(a, getCurrentPlayer(), disc, flips);
             historyMove.push(m);
 
             // Flip the affected discs
-            flipDiscs(getFlips(a, disc));
+            flipDiscs(flips);
             System.out.println();
             changeTurn(turn); // Change the turn to the next player
+            if (legalMask(getCurrentPlayer()) == 0 && legalMask(getOpponent()) != 0) {
+                System.out.println("Player " + getNumPlayer() + " has no valid moves and passes.");
+                System.out.println();
+                changeTurn(turn);
+            }
+            if (clock != null) {
+                clock.stop();
+                if (clock.isFlagged(indexOf(m.player()))) {
+                    timeForfeit = m.player(); // The move came too late
+                } else {
+                    clock.start(indexOf(getCurrentPlayer()));
+                }
+            }
             return true;
         }
         return false;
@@ -91,20 +122,25 @@ public class GameLogic implements PlayableLogic {
      */
     @Override
     public List<Position> ValidMoves() {
-        List<Position> validMoves = new ArrayList<>();
-        Disc tempDisc = new SimpleDisc(getCurrentPlayer()); // Temporary disc for validation
-
-        for (int row = 0; row < getBoardSize(); row++) {
-            for (int col = 0; col < getBoardSize(); col++) {
-                if (board[row][col] == null) { // Check empty positions
-                    List<Position> flips = getFlips(new Position(row, col), tempDisc);
-                    if (!flips.isEmpty() && countFlips(new Position(row, col)) > 0) {
-                        validMoves.add(new Position(row, col)); // Add valid position
-                    }
-                }
-            }
+        return toPositions(legalMask(getCurrentPlayer()));
+    }
+
+    /**
+     * Calculates the squares where a player can legally place a disc.
+     *
+     * @param player The player to check, or null before the players are set.
+     * @return The mask of the legal squares, empty for a missing player.
+     */
+    private long legalMask(Player player) {
+        if (player == null) {
+            return 0L; // The GUI shows the board before the players are chosen
+        }
+        if (!legalValid) {
+            legalCache[0] = BitBoard.legalSquares(discMasks[0], discMasks[1], bombs, unflippables);
+            legalCache[1] = BitBoard.legalSquares(discMasks[1], discMasks[0], bombs, unflippables);
+            legalValid = true;
         }
-        return validMoves;
+        return legalCache[indexOf(player)];
     }
 
     /**
@@ -115,106 +151,192 @@ public class GameLogic implements PlayableLogic {
      */
     @Override
     public int countFlips(Position a) {
-        int countUnflipp = 0;
-        Disc tempDisc = new SimpleDisc(getCurrentPlayer());
-        List<Position> flips = getFlips(a, tempDisc);
-
-        for (Position flip : flips) {
-            if (board[flip.row()][flip.col()].getType().equals("⭕")) {
-                countUnflipp++;
-            }
-        }
-        return flips.size() - countUnflipp;
+        // Unflippable discs in the flip set stay with their owner
+        return Long.bitCount(flipMask(a, getCurrentPlayer()) & ~unflippables);
     }
 
     /**
      * Calculates the list of discs that will be flipped for a given move.
+     * The runs of every bracketed direction are collected in a bit mask first,
+     * and bombs inside them are then resolved by a single flood fill.
      *
      * @param position The position of the move.
      * @param disc     The disc to be placed.
      * @return A list of positions of discs to be flipped.
      */
     public List<Position> getFlips(Position position, Disc disc) {
-        List<Position> flips = new ArrayList<>();
-
-        for (int[] dir : directions) { // Check in all directions
-            List<Position> potentialFlips = new ArrayList<>();
-            int row = position.row() + dir[0];
-            int col = position.col() + dir[1];
-
-            while (row >= 0 && row < getBoardSize() && col >= 0 && col < getBoardSize() &&
-                    board[row][col] != null && board[row][col].getOwner() != disc.getOwner()) {
-                Position tempPos = new Position(row, col);
-                potentialFlips.add(tempPos);
-
-                if (getDiscAtPosition(tempPos).getType().equals("💣")) {
-                    List<Position> tempPosBomb = discFlipOfBomb(tempPos, potentialFlips);
-                    potentialFlips.addAll(tempPosBomb);
-                }
-                row += dir[0];
-                col += dir[1];
-            }
+        return toPositions(flipMask(position, disc.getOwner()));
+    }
 
-            // If the sequence ends with a disc of the same owner, add flips
-            if (row >= 0 && row < getBoardSize() && col >= 0 && col < getBoardSize() &&
-                    board[row][col] != null && board[row][col].getOwner() == disc.getOwner()) {
-                flips.addAll(potentialFlips);
-            }
+    /**
+     * Calculates the bit mask of the discs that will be flipped when the given player places a disc.
+     * Only the owner matters for the flip rules, so no temporary disc is needed.
+     *
+     * @param position The position of the move.
+     * @param owner    The player placing the disc, or null before the players are set.
+     * @return The mask of the squares to be flipped, including unflippable discs in the way.
+     */
+    private long flipMask(Position position, Player owner) {
+        if (owner == null) {
+            return 0L;
         }
-        removeDuplicae(flips); // Ensure no duplicate flips
-        return flips;
+        int own = indexOf(owner);
+        return BitBoard.flips(position.index(), discMasks[own], discMasks[own ^ 1], bombs);
     }
 
     /**
      * Handles the flipping of discs when a bomb is placed.
-     * Adds all affected positions to the flip list recursively.
+     * Adds all positions reached by the bomb chain to the flip list, resolving chained bombs iteratively.
      *
      * @param position       The position of the bomb.
      * @param potentialFlips The list of positions affected so far.
      * @return Updated list of positions affected by the bomb.
      */
     public List<Position> discFlipOfBomb(Position position, List<Position> potentialFlips) {
-        potentialFlips.add(position);
-        int row, col;
-
-        for (int[] dir : directions) { // Check in all directions
-            row = position.row() + dir[0];
-            col = position.col() + dir[1];
-            Position tempPos = new Position(row, col);
-
-            if (row >= 0 && row < getBoardSize() && col >= 0 && col < getBoardSize()) {
-                if (board[row][col] != null && board[row][col].getOwner() != getCurrentPlayer()) {
-                    if (!isContainPosition(potentialFlips, tempPos)) {
-                        potentialFlips.add(tempPos);
-
-                        // Recursive handling for chained bomb flips
-                        if (getDiscAtPosition(tempPos).getType().equals("💣")) {
-                            discFlipOfBomb(tempPos, potentialFlips);
-                        }
-                    }
-                }
-            }
+        long known = 0L;
+        for (Position pos : potentialFlips) {
+            known |= 1L << pos.index();
         }
+        long start = 1L << position.index();
+        long chain = BitBoard.bombChain(start, bombs | start, discMasks[indexOf(getOpponent())]);
+        potentialFlips.addAll(toPositions(chain & ~known));
         return potentialFlips;
     }
 
+    /**
+     * Gets the index of a player in the disc masks and counts.
+     *
+     * @param player The player.
+     * @return 0 for the first player, 1 for the second.
+     */
+    private int indexOf(Player player) {
+        return player.isPlayerOne() ? 0 : 1;
+    }
+
+    /**
+     * Places a disc on an empty square and records it in the masks and counts.
+     *
+     * @param position The square.
+     * @param disc     The disc, with its owner already set.
+     */
+    private void putDisc(Position position, Disc disc) {
+        board[position.row()][position.col()] = disc;
+        long bit = 1L << position.index();
+        int owner = indexOf(disc.getOwner());
+        discMasks[owner] |= bit;
+        discCounts[owner]++;
+        DiscType type = DiscType.of(disc);
+        typeCounts[type.ordinal()]++;
+        emptyCount--;
+        updateFrontier(position.index());
+        legalValid = false;
+        switch (type) {
+            case BOMB:
+                bombs |= bit;
+                break;
+            case UNFLIPPABLE:
+                unflippables |= bit;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Removes a disc from the board, the masks and the counts.
+     *
+     * @param position The square of the disc.
+     */
+    private void removeDisc(Position position) {
+        long bit = 1L << position.index();
+        Disc disc = getDiscAtPosition(position);
+        int owner = indexOf(disc.getOwner());
+        discMasks[owner] &= ~bit;
+        discCounts[owner]--;
+        typeCounts[DiscType.of(disc).ordinal()]--;
+        emptyCount++;
+        bombs &= ~bit;
+        unflippables &= ~bit;
+        board[position.row()][position.col()] = null;
+        updateFrontier(position.index());
+        legalValid = false;
+    }
+
+    /**
+     * Recomputes the frontier around a square whose occupancy changed:
+     * only the square itself and its neighbors can enter or leave the frontier.
+     *
+     * @param square The square that was filled or emptied.
+     */
+    private void updateFrontier(int square) {
+        long occupied = discMasks[0] | discMasks[1];
+        long area = BitBoard.neighbors(square) | (1L << square);
+        frontier &= ~area;
+        for (long rest = area & occupied; rest != 0; rest &= rest - 1) {
+            int next = Long.numberOfTrailingZeros(rest);
+            if ((BitBoard.neighbors(next) & ~occupied) != 0) {
+                frontier |= 1L << next;
+            }
+        }
+    }
+
+    /**
+     * Moves a square from one player's mask and count to the other's, after its disc changed owner.
+     *
+     * @param position The square of the disc.
+     * @param owner    The new owner.
+     */
+    private void transferDisc(Position position, Player owner) {
+        long bit = 1L << position.index();
+        int to = indexOf(owner);
+        if ((discMasks[to] & bit) == 0) {
+            discMasks[to] |= bit;
+            discMasks[to ^ 1] &= ~bit;
+            discCounts[to]++;
+            discCounts[to ^ 1]--;
+            legalValid = false;
+        }
+    }
+
+    /**
+     * Converts a bit mask of squares to a list of positions, ordered by row and then column.
+     *
+     * @param mask The mask to convert.
+     * @return The positions of the set bits.
+     */
+    private List<Position> toPositions(long mask) {
+        List<Position> positions = new ArrayList<>(Long.bitCount(mask));
+        while (mask != 0) {
+            int square = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            positions.add(Position.of(square));
+        }
+        return positions;
+    }
+
     /**
      * Gets the first player in the game.
      *
-     * @return The first player.
+     * @return The first player, or null before the players are set.
      */
     @Override
     public Player getFirstPlayer() {
+        if (this.player1 == null) {
+            return null;
+        }
         return this.player1.isPlayerOne ? this.player1 : this.player2;
     }
 
     /**
      * Gets the second player in the game.
      *
-     * @return The second player.
+     * @return The second player, or null before the players are set.
      */
     @Override
     public Player getSecondPlayer() {
+        if (this.player1 == null) {
+            return null;
+        }
         return !this.player1.isPlayerOne ? this.player1 : this.player2;
     }
 
@@ -241,21 +363,31 @@ public class GameLogic implements PlayableLogic {
     }
 
     /**
-     * Checks whether the game is finished by validating moves or determining a winner.
+     * Checks whether the game is finished: neither player can place a disc.
+     * Both tests run on the disc masks and the counts are kept up to date, so no board scan is needed.
+     * In a timed game, it is also finished when the player to move has run out of time.
+     * When the game is finished, the winner is credited and announced.
      *
      * @return True if the game is finished, false otherwise.
      */
     @Override
     public boolean isGameFinished() {
-        if (ValidMoves().isEmpty()) {
+        if (checkTimeForfeit()) {
+            Player winner = timeForfeit == player1 ? player2 : player1;
+            winner.addWin();
+            System.out.println("Player " + (timeForfeit == player1 ? 1 : 2) + " ran out of time. Player "
+                    + (winner == player1 ? 1 : 2) + " wins!");
+            return true;
+        }
+        if (legalMask(getCurrentPlayer()) == 0 && legalMask(getOpponent()) == 0) {
             String winner = isPlayerOneWon();
 
             if (winner.equals("Player 1")) {
                 getFirstPlayer().addWin();
-                System.out.println("Player 1 wins with " + countPlayer1 + " discs! Player 2 had " + countPlayer2 + " discs.");
+                System.out.println("Player 1 wins with " + discCounts[0] + " discs! Player 2 had " + discCounts[1] + " discs.");
             } else if (winner.equals("Player 2")) {
                 getSecondPlayer().addWin();
-                System.out.println("Player 2 wins with " + countPlayer2 + " discs! Player 1 had " + countPlayer1 + " discs.");
+                System.out.println("Player 2 wins with " + discCounts[1] + " discs! Player 1 had " + discCounts[0] + " discs.");
             } else if (winner.equals("draw")) {
                 System.out.println("The game is a draw.");
             }
@@ -264,6 +396,20 @@ public class GameLogic implements PlayableLogic {
         return false;
     }
 
+    /**
+     * Checks whether the player to move has run out of time; if so, the clocks are stopped and the loss on time
+     * is recorded. Unlike {@link #isGameFinished()}, nobody is credited with a win.
+     *
+     * @return True if a player has lost the current game on time.
+     */
+    public boolean checkTimeForfeit() {
+        if (timeForfeit == null && clock != null && clock.isFlagged(indexOf(getCurrentPlayer()))) {
+            clock.stop();
+            timeForfeit = getCurrentPlayer();
+        }
+        return timeForfeit != null;
+    }
+
     /**
      * Resets the game to its initial state.
      */
@@ -271,13 +417,98 @@ public class GameLogic implements PlayableLogic {
     public void reset() {
         clearBoard(); // Clears the board
         this.turn = true; // Player 1 starts
-        this.board[3][3] = new SimpleDisc(getFirstPlayer());
-        this.board[4][4] = new SimpleDisc(getFirstPlayer());
-        this.board[3][4] = new SimpleDisc(getSecondPlayer());
-        this.board[4][3] = new SimpleDisc(getSecondPlayer());
+        putDisc(Position.of(3, 3), new SimpleDisc(getFirstPlayer()));
+        putDisc(Position.of(4, 4), new SimpleDisc(getFirstPlayer()));
+        putDisc(Position.of(3, 4), new SimpleDisc(getSecondPlayer()));
+        putDisc(Position.of(4, 3), new SimpleDisc(getSecondPlayer()));
         historyMove.clear(); // Clear move history
         player1.reset_bombs_and_unflippedable();
         player2.reset_bombs_and_unflippedable();
+        clock = timeControl == null ? null : new GameClock(timeControl);
+        timeForfeit = null;
+        if (clock != null) {
+            clock.start(0); // Player 1 starts
+        }
+    }
+
+    /**
+     * Sets the time control of the games started after the next reset.
+     * The default is read from the {@value TimeControl#PROPERTY} system property.
+     *
+     * @param timeControl The time control, or null for untimed games.
+     */
+    public void setTimeControl(TimeControl timeControl) {
+        this.timeControl = timeControl;
+    }
+
+    /**
+     * Gets the clocks of the current game.
+     *
+     * @return The clocks, or null if the game is untimed.
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Gets the player who lost the current game on time.
+     *
+     * @return The player, or null if nobody ran out of time.
+     */
+    public Player getTimeForfeit() {
+        return timeForfeit;
+    }
+
+    /**
+     * Records the moves played since the last reset, for saving or replaying the game.
+     * Passes do not appear in the history, so they are inserted wherever the same player moved twice.
+     *
+     * @return The game record.
+     */
+    public GameRecord getRecord() {
+        int[] moves = new int[historyMove.size() * 2];
+        int count = 0;
+        Player expected = getFirstPlayer(); // The player to move in the recorded game
+        for (Move move : historyMove) {
+            if (move.player() != expected) {
+                moves[count++] = SearchBoard.PASS;
+            }
+            moves[count++] = SearchBoard.move(move.position().index(), DiscType.of(move.disc()));
+            expected = move.player() == getFirstPlayer() ? getSecondPlayer() : getFirstPlayer();
+        }
+        return new GameRecord(Arrays.copyOf(moves, count));
+    }
+
+    /**
+     * Takes an immutable snapshot of the current game state.
+     *
+     * @return The snapshot.
+     */
+    public GameSnapshot snapshot() {
+        return GameSnapshot.of(this);
+    }
+
+    /**
+     * Replaces the current game state with a snapshot: the board, both players' special discs and the turn.
+     * The move history is cleared, since it does not lead to the restored state.
+     *
+     * @param snapshot The state to restore.
+     */
+    public void restore(GameSnapshot snapshot) {
+        clearBoard();
+        for (int player = 0; player < 2; player++) {
+            Player owner = player == 0 ? getFirstPlayer() : getSecondPlayer();
+            for (long rest = snapshot.discs(player); rest != 0; rest &= rest - 1) {
+                Position position = Position.of(Long.numberOfTrailingZeros(rest));
+                putDisc(position, snapshot.typeAt(position.index()).create(owner));
+            }
+            owner.set_bombs_and_unflippedable(snapshot.bombsLeft(player), snapshot.unflippablesLeft(player));
+        }
+        this.turn = snapshot.side() == 0;
+        historyMove.clear();
+        if (clock != null && timeForfeit == null) {
+            clock.start(snapshot.side()); // The time left carries over to the restored position
+        }
     }
 
     /**
@@ -295,23 +526,31 @@ public class GameLogic implements PlayableLogic {
             System.out.println("Undoing last move: ");
 
             // Restore player resources for special discs
-            if (lastMove.disc().getType().equals("⭕")) {
-                lastMove.player().restoreUnFlippedable();
-            }
-            if (lastMove.disc().getType().equals("💣")) {
-                lastMove.player().restoreBombs();
+            switch (DiscType.of(lastMove.disc())) {
+                case UNFLIPPABLE:
+                    lastMove.player().restoreUnFlippedable();
+                    break;
+                case BOMB:
+                    lastMove.player().restoreBombs();
+                    break;
+                default:
+                    break;
             }
 
             // Remove the placed disc and revert flipped discs
-            board[lastMove.position().row()][lastMove.position().col()] = null;
+            removeDisc(lastMove.position());
             System.out.println("\tUndo: removing " + lastMove.disc().getType() + " from " + lastMove.position().toString());
             for (Position pos : lastMove.getDiscFlips()) {
-                changeColorBack(getDiscAtPosition(pos));
-                System.out.println("\tUndo: flipping back " + getDiscAtPosition(pos).getType() + " in " + pos.toString());
+                Disc disc = getDiscAtPosition(pos);
+                if (DiscType.of(disc) != DiscType.UNFLIPPABLE) { // Unflippable discs never changed owner
+                    changeColorBack(disc);
+                    transferDisc(pos, disc.getOwner());
+                }
+                System.out.println("\tUndo: flipping back " + disc.getType() + " in " + pos.toString());
             }
 
             System.out.println();
-            changeTurn(turn); // Revert the turn
+            this.turn = lastMove.player() == player1; // Back to the mover, even if the opponent passed since
         }
     }
 
@@ -333,6 +572,15 @@ public class GameLogic implements PlayableLogic {
         return turn ? player1 : player2;
     }
 
+    /**
+     * Gets the player who is not to move.
+     *
+     * @return The opponent of the current player.
+     */
+    private Player getOpponent() {
+        return turn ? player2 : player1;
+    }
+
     /**
      * Clears the entire board, setting all positions to null.
      */
@@ -342,6 +590,87 @@ public class GameLogic implements PlayableLogic {
                 board[i][j] = null;
             }
         }
+        discCounts[0] = 0;
+        discCounts[1] = 0;
+        discMasks[0] = 0L;
+        discMasks[1] = 0L;
+        bombs = 0L;
+        unflippables = 0L;
+        Arrays.fill(typeCounts, 0);
+        emptyCount = BitBoard.SQUARES;
+        frontier = 0L;
+        legalValid = false;
+    }
+
+    // ---- Board statistics, kept up to date on every placement, flip and undo ----
+
+    /**
+     * Gets the number of discs a player has on the board.
+     *
+     * @param player The player.
+     * @return The disc count.
+     */
+    public int getDiscCount(Player player) {
+        return discCounts[indexOf(player)];
+    }
+
+    /**
+     * Gets the squares a player's discs are on.
+     *
+     * @param player The player.
+     * @return The bit mask of the squares (square = row * 8 + col).
+     */
+    public long getDiscMask(Player player) {
+        return discMasks[indexOf(player)];
+    }
+
+    /**
+     * Gets the number of empty squares.
+     *
+     * @return The empty-square count.
+     */
+    public int getEmptyCount() {
+        return emptyCount;
+    }
+
+    /**
+     * Gets the number of discs of a type on the board, whoever owns them.
+     *
+     * @param type The disc type.
+     * @return The disc count.
+     */
+    public int getDiscCount(DiscType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Gets the frontier discs: the discs next to at least one empty square.
+     *
+     * @return The bit mask of the frontier squares.
+     */
+    public long getFrontierMask() {
+        return frontier;
+    }
+
+    /**
+     * Gets the number of frontier discs a player owns.
+     *
+     * @param player The player.
+     * @return The frontier disc count.
+     */
+    public int getFrontierCount(Player player) {
+        return Long.bitCount(frontier & discMasks[indexOf(player)]);
+    }
+
+    /**
+     * Gets the number of squares where a player could place a disc now.
+     * The legal squares of both players are computed once per change of the board and then reused.
+     *
+     * @param player The player.
+     * @return The mobility of the player.
+     */
+    public int getMobility(Player player) {
+        return Long.bitCount(legalMask(player));
     }
 
     /**
@@ -350,23 +679,8 @@ public class GameLogic implements PlayableLogic {
      * @return "Player 1", "Player 2", or "draw" depending on the result.
      */
     public String isPlayerOneWon() {
-        countPlayer1 = 0;
-        countPlayer2 = 0;
-
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (board[i][j] != null) {
-                    if (board[i][j].getOwner().equals(getFirstPlayer())) {
-                        countPlayer1++;
-                    } else {
-                        countPlayer2++;
-                    }
-                }
-            }
-        }
-
-        if (countPlayer1 > countPlayer2) return "Player 1";
-        if (countPlayer1 < countPlayer2) return "Player 2";
+        if (discCounts[0] > discCounts[1]) return "Player 1";
+        if (discCounts[0] < discCounts[1]) return "Player 2";
         return "draw";
     }
 
@@ -379,7 +693,7 @@ public class GameLogic implements PlayableLogic {
      */
     public boolean isContainPosition(List<Position> poslist, Position a) {
         for (Position pos : poslist) {
-            if (pos.row() == a.row() && pos.col() == a.col()) {
+            if (pos.equals(a)) {
                 return true;
             }
         }
@@ -393,8 +707,9 @@ public class GameLogic implements PlayableLogic {
      */
     public void flipDiscs(List<Position> pos) {
         for (Position position : pos) {
-            if (!getDiscAtPosition(position).getType().equals("⭕")) {
+            if (DiscType.of(getDiscAtPosition(position)) != DiscType.UNFLIPPABLE) {
                 board[position.row()][position.col()].setOwner(getCurrentPlayer());
+                transferDisc(position, getCurrentPlayer());
             }
             System.out.println("Player " + getNumPlayer() + " flipped the " + getDiscAtPosition(position).getType() + " in " + position.toString());
         }
@@ -421,13 +736,14 @@ public class GameLogic implements PlayableLogic {
      * @return True if the disc can be placed, false otherwise.
      */
     public boolean checkIfOkToPutBombOrUnflipp(Disc disc) {
-        if (disc.getType().equals("⭕") && getCurrentPlayer().getNumber_of_unflippedable() == 0) {
-            return false; // No unflippable discs left
-        }
-        if (disc.getType().equals("💣") && getCurrentPlayer().getNumber_of_bombs() == 0) {
-            return false; // No bombs left
+        switch (DiscType.of(disc)) {
+            case UNFLIPPABLE:
+                return getCurrentPlayer().getNumber_of_unflippedable() > 0; // No unflippable discs left
+            case BOMB:
+                return getCurrentPlayer().getNumber_of_bombs() > 0; // No bombs left
+            default:
+                return true;
         }
-        return true;
     }
 
     /**
@@ -0,0 +1,199 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A recorded game: the list of moves played from the starting position.
+ * Games are stored as text, one game per line, with moves separated by spaces.
+ * A move is written as the column letter and row number of its square ("d3" is row 2, column 3),
+ * followed by "b" for a bomb or "u" for an unflippable disc; a pass is written as "pass".
+ * Lines starting with '#' are comments.
+ */
+public class GameRecord {
+    private static final String PASS = "pass"; // Text of SearchBoard.PASS
+
+    private final int[] moves; // The moves, encoded as in SearchBoard
+
+    /**
+     * Constructs a record of the given moves.
+     *
+     * @param moves The moves, encoded as in SearchBoard.
+     */
+    public GameRecord(int[] moves) {
+        this.moves = moves.clone();
+    }
+
+    /**
+     * Gets the number of moves in the game.
+     *
+     * @return The number of plies.
+     */
+    public int size() {
+        return moves.length;
+    }
+
+    /**
+     * Gets a move of the game.
+     *
+     * @param ply The index of the move.
+     * @return The encoded move.
+     */
+    public int move(int ply) {
+        return moves[ply];
+    }
+
+    /**
+     * Replays the game from the starting position.
+     *
+     * @param ply The number of moves to play.
+     * @return The position after that many moves.
+     */
+    public SearchBoard positionAt(int ply) {
+        SearchBoard board = SearchBoard.initial();
+        for (int i = 0; i < ply; i++) {
+            board.play(moves[i]);
+        }
+        return board;
+    }
+
+    /**
+     * Writes a move in the text notation.
+     *
+     * @param move The encoded move.
+     * @return The move as text, for example "d3" or "f5b".
+     */
+    public static String format(int move) {
+        if (move == SearchBoard.PASS) {
+            return PASS;
+        }
+        int square = SearchBoard.square(move);
+        StringBuilder text = new StringBuilder(3);
+        text.append((char) ('a' + square % BitBoard.SIZE)).append(square / BitBoard.SIZE + 1);
+        switch (SearchBoard.type(move)) {
+            case BOMB:
+                text.append('b');
+                break;
+            case UNFLIPPABLE:
+                text.append('u');
+                break;
+            default:
+                break;
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads a move in the text notation.
+     *
+     * @param text The move as text.
+     * @return The encoded move.
+     * @throws IllegalArgumentException If the text is not a move.
+     */
+    public static int parseMove(String text) {
+        if (text.equals(PASS)) {
+            return SearchBoard.PASS;
+        }
+        if (text.length() < 2 || text.length() > 3) {
+            throw new IllegalArgumentException("Not a move: " + text);
+        }
+        int col = text.charAt(0) - 'a';
+        int row = text.charAt(1) - '1';
+        if (col < 0 || col >= BitBoard.SIZE || row < 0 || row >= BitBoard.SIZE) {
+            throw new IllegalArgumentException("Not a move: " + text);
+        }
+        DiscType type = DiscType.SIMPLE;
+        if (text.length() == 3) {
+            if (text.charAt(2) == 'b') {
+                type = DiscType.BOMB;
+            } else if (text.charAt(2) == 'u') {
+                type = DiscType.UNFLIPPABLE;
+            } else {
+                throw new IllegalArgumentException("Not a move: " + text);
+            }
+        }
+        return SearchBoard.move(BitBoard.index(row, col), type);
+    }
+
+    /**
+     * Reads a game from one line of text.
+     *
+     * @param line The moves separated by spaces.
+     * @return The game.
+     */
+    public static GameRecord parse(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return new GameRecord(new int[0]);
+        }
+        String[] tokens = trimmed.split("\\s+");
+        int[] moves = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            moves[i] = parseMove(tokens[i]);
+        }
+        return new GameRecord(moves);
+    }
+
+    /**
+     * Reads every game of a file, skipping empty lines and comments.
+     *
+     * @param file The file to read.
+     * @return The games in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    public static List<GameRecord> readAll(Path file) throws IOException {
+        List<GameRecord> games = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    games.add(parse(line));
+                }
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Writes games to a file, one per line.
+     *
+     * @param file  The file to write.
+     * @param games The games.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeAll(Path file, List<GameRecord> games) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (GameRecord game : games) {
+                writer.write(game.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(moves.length * 4);
+        for (int i = 0; i < moves.length; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(format(moves[i]));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GameRecord && Arrays.equals(moves, ((GameRecord) o).moves);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(moves);
+    }
+}
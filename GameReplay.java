@@ -0,0 +1,169 @@
+/**
+ * Steps through a recorded game, for reviewing it ply by ply.
+ * A snapshot of the position is kept every {@value #CHECKPOINT_INTERVAL} plies, so any ply is
+ * reached from the nearest checkpoint before it by playing at most CHECKPOINT_INTERVAL - 1 moves,
+ * and stepping forward from the current ply plays a single move.
+ * The cursor is meant for one thread (the GUI or a script); {@link #positionAt(int)} only reads
+ * immutable snapshots and may be called from any thread, for example by a {@link ReplayAnalysis}.
+ */
+public class GameReplay {
+    public static final int CHECKPOINT_INTERVAL = 8; // Plies between two stored snapshots
+
+    private final GameRecord record;
+    private final GameSnapshot[] checkpoints; // Position before ply i * CHECKPOINT_INTERVAL
+    private int ply; // Number of moves played to reach the current position
+    private GameSnapshot current; // Position at the cursor
+
+    /**
+     * Constructs a replay of a recorded game, positioned at the start.
+     *
+     * @param record The game.
+     * @throws IllegalArgumentException If a move of the game is not legal.
+     */
+    public GameReplay(GameRecord record) {
+        this.record = record;
+        this.checkpoints = new GameSnapshot[record.size() / CHECKPOINT_INTERVAL + 1];
+        GameSnapshot position = GameSnapshot.initial();
+        for (int i = 0; i < record.size(); i++) {
+            if (i % CHECKPOINT_INTERVAL == 0) {
+                checkpoints[i / CHECKPOINT_INTERVAL] = position;
+            }
+            position = playChecked(position, i);
+        }
+        if (record.size() % CHECKPOINT_INTERVAL == 0) {
+            checkpoints[record.size() / CHECKPOINT_INTERVAL] = position;
+        }
+        this.current = checkpoints[0];
+    }
+
+    /**
+     * Plays a recorded move, checking that it is legal in the position.
+     */
+    private GameSnapshot playChecked(GameSnapshot position, int index) {
+        int move = record.move(index);
+        long legal = position.legalSquares();
+        boolean ok = move == SearchBoard.PASS ? legal == 0
+                : (legal & (1L << SearchBoard.square(move))) != 0 && hasDisc(position, SearchBoard.type(move));
+        if (!ok) {
+            throw new IllegalArgumentException("Illegal move " + GameRecord.format(move) + " at ply " + index);
+        }
+        return position.play(move);
+    }
+
+    private static boolean hasDisc(GameSnapshot position, DiscType type) {
+        switch (type) {
+            case BOMB:
+                return position.bombsLeft(position.side()) > 0;
+            case UNFLIPPABLE:
+                return position.unflippablesLeft(position.side()) > 0;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Gets the recorded game.
+     *
+     * @return The game record.
+     */
+    public GameRecord record() {
+        return record;
+    }
+
+    /**
+     * Gets the number of moves of the game; the plies 0 to size() can be visited.
+     *
+     * @return The number of moves.
+     */
+    public int size() {
+        return record.size();
+    }
+
+    /**
+     * Gets the ply at the cursor.
+     *
+     * @return The number of moves played to reach the current position.
+     */
+    public int ply() {
+        return ply;
+    }
+
+    /**
+     * Gets the position at the cursor.
+     *
+     * @return The current position.
+     */
+    public GameSnapshot position() {
+        return current;
+    }
+
+    /**
+     * Moves the cursor to a ply.
+     *
+     * @param target The ply, between 0 and size().
+     * @return The position at that ply.
+     */
+    public GameSnapshot seek(int target) {
+        if (target == ply + 1) {
+            current = current.play(record.move(ply));
+        } else if (target != ply) {
+            current = positionAt(target);
+        }
+        ply = target;
+        return current;
+    }
+
+    /**
+     * Moves the cursor one ply forward, unless it is at the end.
+     *
+     * @return The new current position.
+     */
+    public GameSnapshot next() {
+        return seek(Math.min(ply + 1, size()));
+    }
+
+    /**
+     * Moves the cursor one ply back, unless it is at the start.
+     *
+     * @return The new current position.
+     */
+    public GameSnapshot previous() {
+        return seek(Math.max(ply - 1, 0));
+    }
+
+    /**
+     * Gets the position at a ply without moving the cursor.
+     *
+     * @param target The ply, between 0 and size().
+     * @return The position after that many moves.
+     */
+    public GameSnapshot positionAt(int target) {
+        if (target < 0 || target > size()) {
+            throw new IndexOutOfBoundsException("Ply " + target + " of a game of " + size());
+        }
+        GameSnapshot position = checkpoints[target / CHECKPOINT_INTERVAL];
+        for (int i = target - target % CHECKPOINT_INTERVAL; i < target; i++) {
+            position = position.play(record.move(i));
+        }
+        return position;
+    }
+
+    /**
+     * Gets the move that led to a ply.
+     *
+     * @param target The ply, between 1 and size().
+     * @return The encoded move played just before that ply.
+     */
+    public int moveBefore(int target) {
+        return record.move(target - 1);
+    }
+
+    /**
+     * Loads the current position into a live game, for example to continue playing from it.
+     *
+     * @param game The game to overwrite.
+     */
+    public void restoreInto(GameLogic game) {
+        game.restore(current);
+    }
+}
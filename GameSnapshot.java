@@ -0,0 +1,333 @@
+/**
+ * An immutable, compact snapshot of a game: the discs as bit masks, the side to move,
+ * and the special discs both players still hold.
+ * Snapshots are safe to share between threads. Playing a move derives a new child snapshot and
+ * leaves the parent untouched, so parallel AIs and analysis tools can explore independent states
+ * without copying the Disc[][] board of a GameLogic.
+ *
+ * The text notation of a snapshot is the 64 squares row by row, the player to move ("1" or "2"),
+ * and the bombs/unflippables left of player 1 and of player 2, for example "...X...O... 1 3/2 2/2"
+ * (shortened): '.' is an empty square, X, U and B are a simple, unflippable and bomb disc of
+ * player 1, and O, u and b those of player 2.
+ */
+public final class GameSnapshot {
+    private static final String SQUARE_CHARS = "XUBOub"; // Player 1 then player 2, in DiscType order
+    private final long discs1; // Discs of player 1
+    private final long discs2; // Discs of player 2
+    private final long bombs; // Squares holding a bomb disc
+    private final long unflippables; // Squares holding an unflippable disc
+    private final int state; // Side to move and both inventories, packed by pack()
+
+    private GameSnapshot(long discs1, long discs2, long bombs, long unflippables, int state) {
+        this.discs1 = discs1;
+        this.discs2 = discs2;
+        this.bombs = bombs;
+        this.unflippables = unflippables;
+        this.state = state;
+    }
+
+    /**
+     * Gets the starting position with full inventories.
+     *
+     * @return The initial snapshot.
+     */
+    public static GameSnapshot initial() {
+        return of(SearchBoard.initial());
+    }
+
+    /**
+     * Takes a snapshot of a live game.
+     *
+     * @param game The game.
+     * @return The snapshot of its current state.
+     */
+    public static GameSnapshot of(PlayableLogic game) {
+        long discs1 = 0L;
+        long discs2 = 0L;
+        long bombs = 0L;
+        long unflippables = 0L;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            Disc disc = game.getDiscAtPosition(Position.of(square));
+            if (disc == null) {
+                continue;
+            }
+            long bit = 1L << square;
+            if (disc.getOwner().isPlayerOne()) {
+                discs1 |= bit;
+            } else {
+                discs2 |= bit;
+            }
+            switch (DiscType.of(disc)) {
+                case BOMB:
+                    bombs |= bit;
+                    break;
+                case UNFLIPPABLE:
+                    unflippables |= bit;
+                    break;
+                default:
+                    break;
+            }
+        }
+        Player first = game.getFirstPlayer();
+        Player second = game.getSecondPlayer();
+        return new GameSnapshot(discs1, discs2, bombs, unflippables,
+                pack(game.isFirstPlayerTurn() ? 0 : 1, first.getNumber_of_bombs(), first.getNumber_of_unflippedable(),
+                        second.getNumber_of_bombs(), second.getNumber_of_unflippedable()));
+    }
+
+    /**
+     * Takes a snapshot of a search board.
+     *
+     * @param board The board.
+     * @return The snapshot of its current state.
+     */
+    public static GameSnapshot of(SearchBoard board) {
+        return new GameSnapshot(board.discs(0), board.discs(1), board.bombs(), board.unflippables(),
+                pack(board.side(), board.bombsLeft(0), board.unflippablesLeft(0), board.bombsLeft(1), board.unflippablesLeft(1)));
+    }
+
+    /**
+     * Creates a search board holding this state, for example to start a search from it.
+     *
+     * @return A new, independent search board.
+     */
+    public SearchBoard toSearchBoard() {
+        SearchBoard board = new SearchBoard();
+        for (int player = 0; player < 2; player++) {
+            for (long rest = discs(player); rest != 0; rest &= rest - 1) {
+                int square = Long.numberOfTrailingZeros(rest);
+                board.put(square, player, typeAt(square));
+            }
+            board.setInventory(player, bombsLeft(player), unflippablesLeft(player));
+        }
+        board.setSide(side());
+        return board;
+    }
+
+    /**
+     * Derives the snapshot after the side to move plays a move. This snapshot is not changed.
+     *
+     * @param move The move, encoded as in SearchBoard; it must be legal, or SearchBoard.PASS.
+     * @return The child snapshot.
+     */
+    public GameSnapshot play(int move) {
+        int side = side();
+        if (move == SearchBoard.PASS) {
+            return new GameSnapshot(discs1, discs2, bombs, unflippables, state ^ 1);
+        }
+        int square = SearchBoard.square(move);
+        long bit = 1L << square;
+        long own = discs(side);
+        long opp = discs(side ^ 1);
+        long flipped = BitBoard.flips(square, own, opp, bombs) & ~unflippables;
+        own |= flipped | bit;
+        opp &= ~flipped;
+
+        long newBombs = bombs;
+        long newUnflippables = unflippables;
+        int[] bombsLeft = {bombsLeft(0), bombsLeft(1)};
+        int[] unflippablesLeft = {unflippablesLeft(0), unflippablesLeft(1)};
+        switch (SearchBoard.type(move)) {
+            case BOMB:
+                newBombs |= bit;
+                bombsLeft[side]--;
+                break;
+            case UNFLIPPABLE:
+                newUnflippables |= bit;
+                unflippablesLeft[side]--;
+                break;
+            default:
+                break;
+        }
+        return new GameSnapshot(side == 0 ? own : opp, side == 0 ? opp : own, newBombs, newUnflippables,
+                pack(side ^ 1, bombsLeft[0], unflippablesLeft[0], bombsLeft[1], unflippablesLeft[1]));
+    }
+
+    /**
+     * Writes this state into a live game: the board, both players' special discs and the turn.
+     * The game's move history is cleared, since it does not lead to this state.
+     *
+     * @param game The game to overwrite; its players must already be set.
+     */
+    public void restoreInto(GameLogic game) {
+        game.restore(this);
+    }
+
+    /**
+     * Maps the snapshot through one of the eight symmetries of the board.
+     *
+     * @param symmetry The symmetry, between 0 and BitBoard.SYMMETRIES - 1.
+     * @return The rotated or reflected snapshot, with the same side to move and special discs left.
+     */
+    public GameSnapshot transform(int symmetry) {
+        return new GameSnapshot(BitBoard.transform(discs1, symmetry), BitBoard.transform(discs2, symmetry),
+                BitBoard.transform(bombs, symmetry), BitBoard.transform(unflippables, symmetry), state);
+    }
+
+    /**
+     * Gets the Zobrist hash of the position, the same as SearchBoard computes.
+     *
+     * @return The hash.
+     */
+    public long hash() {
+        return toSearchBoard().hash();
+    }
+
+    // ---- Queries ----
+
+    /**
+     * Gets the side to move.
+     *
+     * @return 0 when player 1 is to move, 1 for player 2.
+     */
+    public int side() {
+        return state & 1;
+    }
+
+    public long discs(int player) {
+        return player == 0 ? discs1 : discs2;
+    }
+
+    public long bombs() {
+        return bombs;
+    }
+
+    public long unflippables() {
+        return unflippables;
+    }
+
+    public long empty() {
+        return ~(discs1 | discs2);
+    }
+
+    public int bombsLeft(int player) {
+        return (state >>> (1 + 8 * player)) & 0xF;
+    }
+
+    public int unflippablesLeft(int player) {
+        return (state >>> (5 + 8 * player)) & 0xF;
+    }
+
+    /**
+     * Gets the type of the disc on a square.
+     *
+     * @param square The square index.
+     * @return The disc type; empty squares report SIMPLE.
+     */
+    public DiscType typeAt(int square) {
+        long bit = 1L << square;
+        if ((bombs & bit) != 0) {
+            return DiscType.BOMB;
+        }
+        return (unflippables & bit) != 0 ? DiscType.UNFLIPPABLE : DiscType.SIMPLE;
+    }
+
+    /**
+     * Calculates the squares where the side to move can legally place a disc.
+     *
+     * @return The mask of the legal squares.
+     */
+    public long legalSquares() {
+        int side = side();
+        return BitBoard.legalSquares(discs(side), discs(side ^ 1), bombs, unflippables);
+    }
+
+    /**
+     * Reads a snapshot in the text notation. The special disc counts may be left out,
+     * in which case both players hold all of them.
+     *
+     * @param text The snapshot as text.
+     * @return The snapshot.
+     * @throws IllegalArgumentException If the text is not in the notation.
+     */
+    public static GameSnapshot parse(String text) {
+        String[] fields = text.trim().split("\\s+");
+        if (fields.length != 2 && fields.length != 4 || fields[0].length() != BitBoard.SQUARES) {
+            throw new IllegalArgumentException("Not a position: " + text);
+        }
+        SearchBoard board = new SearchBoard();
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            char c = fields[0].charAt(square);
+            int index = SQUARE_CHARS.indexOf(c);
+            if (index >= 0) {
+                board.put(square, index / 3, DiscType.values()[index % 3]);
+            } else if (c != '.') {
+                throw new IllegalArgumentException("Not a square: " + c);
+            }
+        }
+        if (!fields[1].equals("1") && !fields[1].equals("2")) {
+            throw new IllegalArgumentException("Not a side to move: " + fields[1]);
+        }
+        board.setSide(fields[1].equals("1") ? 0 : 1);
+        for (int player = 0; player < 2; player++) {
+            int bombs = Player.initial_number_of_bombs;
+            int unflippables = Player.initial_number_of_unflippedable;
+            if (fields.length == 4) {
+                String[] counts = fields[2 + player].split("/");
+                try {
+                    bombs = Integer.parseInt(counts[0]);
+                    unflippables = Integer.parseInt(counts[1]);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Not a disc count: " + fields[2 + player], e);
+                }
+                if (bombs < 0 || bombs > Player.initial_number_of_bombs
+                        || unflippables < 0 || unflippables > Player.initial_number_of_unflippedable) {
+                    throw new IllegalArgumentException("Disc count out of range: " + fields[2 + player]);
+                }
+            }
+            board.setInventory(player, bombs, unflippables);
+        }
+        return of(board);
+    }
+
+    /**
+     * Writes the snapshot in the text notation read by {@link #parse(String)}.
+     *
+     * @return The snapshot as text.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(BitBoard.SQUARES + 12);
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            long bit = 1L << square;
+            if ((discs1 & bit) != 0) {
+                text.append(SQUARE_CHARS.charAt(typeAt(square).ordinal()));
+            } else if ((discs2 & bit) != 0) {
+                text.append(SQUARE_CHARS.charAt(3 + typeAt(square).ordinal()));
+            } else {
+                text.append('.');
+            }
+        }
+        text.append(' ').append(side() + 1);
+        for (int player = 0; player < 2; player++) {
+            text.append(' ').append(bombsLeft(player)).append('/').append(unflippablesLeft(player));
+        }
+        return text.toString();
+    }
+
+    private static int pack(int side, int bombs1, int unflippables1, int bombs2, int unflippables2) {
+        return side | (bombs1 << 1) | (unflippables1 << 5) | (bombs2 << 9) | (unflippables2 << 13);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GameSnapshot)) {
+            return false;
+        }
+        GameSnapshot other = (GameSnapshot) o;
+        return discs1 == other.discs1 && discs2 == other.discs2 && bombs == other.bombs
+                && unflippables == other.unflippables && state == other.state;
+    }
+
+    @Override
+    public int hashCode() {
+        long mix = discs1 * 31 + discs2;
+        mix = mix * 31 + bombs;
+        mix = mix * 31 + unflippables;
+        mix = mix * 31 + state;
+        return (int) (mix ^ (mix >>> 32));
+    }
+}
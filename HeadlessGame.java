@@ -0,0 +1,163 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A game without a display, backed by a {@link SearchBoard}, for tools that play many games at once.
+ * It follows the same rules as GameLogic, including passes, but prints nothing and does not keep score,
+ * so many threads can run their own games without sharing System.out or crediting wins.
+ * The players' special-disc counts are kept in step with the board.
+ */
+public class HeadlessGame implements PlayableLogic {
+    private SearchBoard board = SearchBoard.initial();
+    private Player player1;
+    private Player player2;
+
+    /**
+     * Constructs a game in the starting position.
+     *
+     * @param player1 The first player.
+     * @param player2 The second player.
+     */
+    public HeadlessGame(Player player1, Player player2) {
+        setPlayers(player1, player2);
+    }
+
+    /**
+     * Places a disc for the player to move if the move is legal and the player still has such a disc.
+     * The turn then goes to the opponent, unless the opponent has no valid move and passes.
+     *
+     * @param a    The position to place the disc.
+     * @param disc The disc to be placed.
+     * @return True if the disc was placed, false otherwise.
+     */
+    @Override
+    public boolean locate_disc(Position a, Disc disc) {
+        DiscType type = DiscType.of(disc);
+        int square = a.index();
+        int side = board.side();
+        if ((board.legalSquares() & 1L << square) == 0
+                || type == DiscType.BOMB && board.bombsLeft(side) == 0
+                || type == DiscType.UNFLIPPABLE && board.unflippablesLeft(side) == 0) {
+            return false;
+        }
+        play(SearchBoard.move(square, type));
+        return true;
+    }
+
+    /**
+     * Plays a legal move given in the SearchBoard encoding, then passes for the opponent if it has no move.
+     *
+     * @param move The encoded move.
+     */
+    public void play(int move) {
+        board.play(move);
+        if (board.mustPass() && !board.isGameOver()) {
+            board.play(SearchBoard.PASS);
+        }
+        claimPlayers();
+    }
+
+    /**
+     * Sets the players' special-disc counts to those of this game. Players that take part in several
+     * games at once, one move at a time, need this before each of their moves.
+     */
+    public void claimPlayers() {
+        player1.set_bombs_and_unflippedable(board.bombsLeft(0), board.unflippablesLeft(0));
+        player2.set_bombs_and_unflippedable(board.bombsLeft(1), board.unflippablesLeft(1));
+    }
+
+    @Override
+    public Disc getDiscAtPosition(Position position) {
+        int square = position.index();
+        long bit = 1L << square;
+        int owner = (board.discs(0) & bit) != 0 ? 0 : (board.discs(1) & bit) != 0 ? 1 : -1;
+        if (owner < 0) {
+            return null;
+        }
+        DiscType type = (board.bombs() & bit) != 0 ? DiscType.BOMB
+                : (board.unflippables() & bit) != 0 ? DiscType.UNFLIPPABLE : DiscType.SIMPLE;
+        return type.create(owner == 0 ? player1 : player2);
+    }
+
+    @Override
+    public int getBoardSize() {
+        return BitBoard.SIZE;
+    }
+
+    @Override
+    public List<Position> ValidMoves() {
+        List<Position> positions = new ArrayList<>();
+        for (long rest = board.legalSquares(); rest != 0; rest &= rest - 1) {
+            positions.add(Position.of(Long.numberOfTrailingZeros(rest)));
+        }
+        return positions;
+    }
+
+    @Override
+    public int countFlips(Position a) {
+        return Long.bitCount(board.flips(a.index()) & ~board.unflippables());
+    }
+
+    @Override
+    public Player getFirstPlayer() {
+        return player1;
+    }
+
+    @Override
+    public Player getSecondPlayer() {
+        return player2;
+    }
+
+    @Override
+    public void setPlayers(Player player1, Player player2) {
+        this.player1 = player1;
+        this.player2 = player2;
+        reset();
+    }
+
+    @Override
+    public boolean isFirstPlayerTurn() {
+        return board.side() == 0;
+    }
+
+    /**
+     * Checks whether neither player can move any more. Unlike GameLogic, no win is credited.
+     *
+     * @return True if the game is over.
+     */
+    @Override
+    public boolean isGameFinished() {
+        return board.isGameOver();
+    }
+
+    @Override
+    public void reset() {
+        board = SearchBoard.initial();
+        player1.reset_bombs_and_unflippedable();
+        player2.reset_bombs_and_unflippedable();
+    }
+
+    /**
+     * Undoes the last move, and the pass that followed it if there was one.
+     */
+    @Override
+    public void undoLastMove() {
+        if (board.ply() == 0) {
+            return;
+        }
+        board.undo();
+        if (board.ply() > 0 && board.mustPass() && !board.isGameOver()) {
+            board.undo(); // The move before the automatic pass
+        }
+        claimPlayers();
+    }
+
+    /**
+     * Gets the current position.
+     *
+     * @return A snapshot of the board, the inventories and the side to move.
+     */
+    public GameSnapshot snapshot() {
+        return GameSnapshot.of(board);
+    }
+}
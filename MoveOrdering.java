@@ -0,0 +1,241 @@
+import java.util.Arrays;
+import java.util.EnumSet;
+
+/**
+ * Orders the moves of a search node so that the best move is likely to be searched first,
+ * which is what makes alpha-beta pruning effective.
+ * Moves are ranked by, in order of priority: the move stored in the transposition table,
+ * the killer moves of the current ply, and then a blend of the history table
+ * (indexed by disc type and square), static square priorities (corners first, X-squares last)
+ * and, in deeper nodes, how few replies the move leaves the opponent.
+ *
+ * The tables are not thread safe: every search thread uses its own instance,
+ * for example through {@link #forCurrentThread()}. Node and cutoff counters are kept
+ * so that the gain of each heuristic can be measured by switching it off.
+ */
+public final class MoveOrdering {
+
+    /**
+     * The heuristics that can be switched on and off.
+     */
+    public enum Heuristic {
+        HASH_MOVE, KILLERS, HISTORY, SQUARE_TABLE, MOBILITY
+    }
+
+    private static final int HASH_SCORE = 1 << 30; // Score of the transposition table move
+    private static final int KILLER_SCORE = 1 << 29; // Score of the first killer move
+    private static final int HISTORY_LIMIT = 1 << 20; // History values are halved when one reaches this
+    private static final int SQUARE_WEIGHT = 64; // Multiplier of the static square priority
+    private static final int MOBILITY_WEIGHT = 512; // Penalty per reply left to the opponent
+    private static final int MOBILITY_MIN_DEPTH = 3; // Mobility ordering is only worth it this far from the leaves
+    private static final int OTHER = Heuristic.values().length; // Cutoff source of moves ranked by the blend
+
+    private static final ThreadLocal<MoveOrdering> PER_THREAD =
+            ThreadLocal.withInitial(() -> new MoveOrdering(EnumSet.allOf(Heuristic.class)));
+
+    private final EnumSet<Heuristic> enabled;
+    private final int[][] killers = new int[SearchBoard.MAX_PLY][2]; // Two killer moves per ply
+    private final int[][] history = new int[DiscType.values().length][BitBoard.SQUARES];
+    private final int[][] scores = new int[SearchBoard.MAX_PLY][SearchBoard.MAX_MOVES]; // Sort keys per ply
+    private final byte[][] sources = new byte[SearchBoard.MAX_PLY][SearchBoard.MAX_MOVES]; // Why each move was ranked
+
+    // Instrumentation
+    private long nodes;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private final long[] cutoffsBySource = new long[OTHER + 1];
+
+    /**
+     * Constructs a move ordering that uses the given heuristics.
+     *
+     * @param enabled The heuristics to use.
+     */
+    public MoveOrdering(EnumSet<Heuristic> enabled) {
+        this.enabled = EnumSet.copyOf(enabled);
+        clear();
+    }
+
+    /**
+     * Gets the move ordering of the calling thread, with every heuristic enabled.
+     *
+     * @return The thread's own instance.
+     */
+    public static MoveOrdering forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Sorts moves from the most to the least promising.
+     *
+     * @param board    The position the moves belong to.
+     * @param moves    The moves to sort, in place.
+     * @param count    The number of moves.
+     * @param ply      The distance from the root of the search.
+     * @param hashMove The move from the transposition table, or SearchBoard.NO_MOVE.
+     * @param depth    The remaining search depth.
+     */
+    public void order(SearchBoard board, int[] moves, int count, int ply, int hashMove, int depth) {
+        int[] keys = scores[ply];
+        byte[] why = sources[ply];
+        boolean useMobility = enabled.contains(Heuristic.MOBILITY) && depth >= MOBILITY_MIN_DEPTH;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == hashMove && enabled.contains(Heuristic.HASH_MOVE)) {
+                keys[i] = HASH_SCORE;
+                why[i] = (byte) Heuristic.HASH_MOVE.ordinal();
+            } else if (enabled.contains(Heuristic.KILLERS) && (move == killers[ply][0] || move == killers[ply][1])) {
+                keys[i] = move == killers[ply][0] ? KILLER_SCORE : KILLER_SCORE - 1;
+                why[i] = (byte) Heuristic.KILLERS.ordinal();
+            } else {
+                int key = 0;
+                if (enabled.contains(Heuristic.HISTORY)) {
+                    key += history[SearchBoard.type(move).ordinal()][SearchBoard.square(move)];
+                }
+                if (enabled.contains(Heuristic.SQUARE_TABLE)) {
+                    key += SQUARE_WEIGHT * WeightedSquareEvaluator.weight(SearchBoard.square(move));
+                }
+                if (useMobility) {
+                    board.play(move);
+                    key -= MOBILITY_WEIGHT * Long.bitCount(board.legalSquares());
+                    board.undo();
+                }
+                keys[i] = key;
+                why[i] = (byte) OTHER;
+            }
+        }
+
+        // Insertion sort: move lists are short and often nearly sorted
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int key = keys[i];
+            byte source = why[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] < key) {
+                moves[j + 1] = moves[j];
+                keys[j + 1] = keys[j];
+                why[j + 1] = why[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            keys[j + 1] = key;
+            why[j + 1] = source;
+        }
+    }
+
+    /**
+     * Counts a searched node.
+     */
+    public void recordNode() {
+        nodes++;
+    }
+
+    /**
+     * Records a beta cutoff, updating the killer and history tables.
+     *
+     * @param move  The move that caused the cutoff.
+     * @param index The position of the move in the ordered list.
+     * @param ply   The distance from the root of the search.
+     * @param depth The remaining search depth.
+     */
+    public void recordCutoff(int move, int index, int ply, int depth) {
+        cutoffs++;
+        if (index == 0) {
+            firstMoveCutoffs++;
+        }
+        cutoffsBySource[sources[ply][index]]++;
+
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] row = history[SearchBoard.type(move).ordinal()];
+        int square = SearchBoard.square(move);
+        row[square] += depth * depth;
+        if (row[square] >= HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    /**
+     * Prepares the tables for a new search: killers are cleared and history values are halved.
+     */
+    public void newSearch() {
+        for (int[] pair : killers) {
+            pair[0] = SearchBoard.NO_MOVE;
+            pair[1] = SearchBoard.NO_MOVE;
+        }
+        ageHistory();
+    }
+
+    /**
+     * Clears all tables and counters.
+     */
+    public void clear() {
+        for (int[] row : history) {
+            Arrays.fill(row, 0);
+        }
+        newSearch();
+        resetCounters();
+    }
+
+    /**
+     * Resets the node and cutoff counters.
+     */
+    public void resetCounters() {
+        nodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        Arrays.fill(cutoffsBySource, 0);
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * Gets how often the first ordered move caused the cutoff.
+     *
+     * @return The number of first-move cutoffs.
+     */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * Gets how many cutoffs came from moves ranked by a heuristic.
+     * HISTORY, SQUARE_TABLE and MOBILITY are blended, so their cutoffs are counted together under HISTORY.
+     *
+     * @param heuristic The heuristic.
+     * @return The number of cutoffs.
+     */
+    public long getCutoffs(Heuristic heuristic) {
+        if (heuristic == Heuristic.HASH_MOVE || heuristic == Heuristic.KILLERS) {
+            return cutoffsBySource[heuristic.ordinal()];
+        }
+        return cutoffsBySource[OTHER];
+    }
+
+    /**
+     * Summarizes the counters in one line.
+     *
+     * @return The summary.
+     */
+    public String report() {
+        double firstRate = cutoffs == 0 ? 0 : 100.0 * firstMoveCutoffs / cutoffs;
+        return String.format("nodes=%d cutoffs=%d first=%.1f%% hash=%d killers=%d ordered=%d",
+                nodes, cutoffs, firstRate, cutoffsBySource[Heuristic.HASH_MOVE.ordinal()],
+                cutoffsBySource[Heuristic.KILLERS.ordinal()], cutoffsBySource[OTHER]);
+    }
+
+    private void ageHistory() {
+        for (int[] row : history) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>= 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * The first-layer sums of an {@link NnueNetwork} for every position on a search line.
+ * A SearchBoard with an attached accumulator reports each move, and only the weights of the
+ * features the move changed are added: one precomputed row, covering both perspectives, for the new
+ * disc, for each disc it flipped, and for the special-disc count it used up. One entry is kept per ply,
+ * so taking a move back costs nothing.
+ */
+public final class NnueAccumulator {
+    private final NnueNetwork network;
+    private final int width; // Neurons per perspective
+    private final short[] sums; // [ply][perspective][neuron], both perspectives of a ply side by side
+    private final int[] inputs; // Clipped sums of the position being evaluated, the side to move's first
+
+    /**
+     * Constructs an accumulator for a network.
+     *
+     * @param network The network whose first layer is summed.
+     */
+    public NnueAccumulator(NnueNetwork network) {
+        this.network = network;
+        this.width = network.width();
+        this.sums = new short[(SearchBoard.MAX_PLY + 1) * 2 * width];
+        this.inputs = new int[2 * width];
+    }
+
+    public NnueNetwork network() {
+        return network;
+    }
+
+    /**
+     * Computes the sums of a position from scratch.
+     *
+     * @param board The position; its current ply gets the sums.
+     */
+    void refresh(SearchBoard board) {
+        int offset = board.ply() * 2 * width;
+        for (int perspective = 0; perspective < 2; perspective++) {
+            int base = offset + perspective * width;
+            System.arraycopy(network.featureBiases, 0, sums, base, width);
+            for (int owner = 0; owner < 2; owner++) {
+                for (long rest = board.discs(owner); rest != 0; rest &= rest - 1) {
+                    int square = Long.numberOfTrailingZeros(rest);
+                    add(base, NnueNetwork.discFeature(perspective, owner, typeAt(board, square), square));
+                }
+                add(base, NnueNetwork.bombFeature(perspective, owner, board.bombsLeft(owner)));
+                add(base, NnueNetwork.unflippableFeature(perspective, owner, board.unflippablesLeft(owner)));
+            }
+        }
+    }
+
+    private static DiscType typeAt(SearchBoard board, int square) {
+        long bit = 1L << square;
+        if ((board.bombs() & bit) != 0) {
+            return DiscType.BOMB;
+        }
+        return (board.unflippables() & bit) != 0 ? DiscType.UNFLIPPABLE : DiscType.SIMPLE;
+    }
+
+    /**
+     * Derives the sums after a move from those before it.
+     *
+     * @param ply       The ply before the move.
+     * @param side      The player who moved.
+     * @param square    The square of the new disc.
+     * @param type      The type of the new disc.
+     * @param flipped   The discs that changed owner.
+     * @param bombs     The squares holding a bomb after the move.
+     * @param countLeft The mover's count of the new disc's type after the move, if it is special.
+     */
+    void play(int ply, int side, int square, DiscType type, long flipped, long bombs, int countLeft) {
+        int from = ply * 2 * width;
+        int to = from + 2 * width;
+        System.arraycopy(sums, from, sums, to, 2 * width);
+        add(to, network.placeRows, network.discRow(side, type, square));
+        for (long rest = flipped; rest != 0; rest &= rest - 1) {
+            int flippedSquare = Long.numberOfTrailingZeros(rest);
+            DiscType flippedType = (bombs & 1L << flippedSquare) != 0 ? DiscType.BOMB : DiscType.SIMPLE;
+            add(to, network.flipRows, network.discRow(side, flippedType, flippedSquare));
+        }
+        switch (type) {
+            case BOMB:
+                add(to, network.bombRows, network.countRow(side, type, countLeft));
+                break;
+            case UNFLIPPABLE:
+                add(to, network.unflippableRows, network.countRow(side, type, countLeft));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Carries the sums over a pass, which changes no feature.
+     *
+     * @param ply The ply before the pass.
+     */
+    void pass(int ply) {
+        System.arraycopy(sums, ply * 2 * width, sums, (ply + 1) * 2 * width, 2 * width);
+    }
+
+    /**
+     * Evaluates the position at a ply with the rest of the network.
+     *
+     * @param ply  The ply of the position.
+     * @param side The side to move.
+     * @return The score for the side to move.
+     */
+    int evaluate(int ply, int side) {
+        int first = ply * 2 * width + side * width;
+        int second = ply * 2 * width + (side ^ 1) * width;
+        for (int i = 0; i < width; i++) {
+            inputs[i] = Math.min(Math.max(sums[first + i], 0), NnueNetwork.ACTIVATION_MAX);
+            inputs[width + i] = Math.min(Math.max(sums[second + i], 0), NnueNetwork.ACTIVATION_MAX);
+        }
+        return network.evaluate(inputs);
+    }
+
+    private void add(int base, int feature) {
+        short[] weights = network.featureWeights;
+        int row = feature * width;
+        for (int i = 0; i < width; i++) {
+            sums[base + i] += weights[row + i];
+        }
+    }
+
+    /**
+     * Adds a row holding the changes of both perspectives to the sums of a ply.
+     */
+    private void add(int base, short[] rows, int row) {
+        for (int i = 0; i < 2 * width; i++) {
+            sums[base + i] += rows[row + i];
+        }
+    }
+}
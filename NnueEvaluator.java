@@ -0,0 +1,31 @@
+/**
+ * Evaluates positions with an {@link NnueNetwork}.
+ * The first time a board is evaluated, an accumulator is attached to it; from then on the board
+ * updates the first layer incrementally as the search plays and takes back moves, and an evaluation
+ * only runs the small layers after it.
+ */
+public class NnueEvaluator implements Evaluator {
+    private static final int MAX_SCORE = SearchEngine.WIN - 1; // Evaluations never look like decided games
+
+    private final NnueNetwork network;
+
+    /**
+     * Constructs an evaluator.
+     *
+     * @param network The network to evaluate with.
+     */
+    public NnueEvaluator(NnueNetwork network) {
+        this.network = network;
+    }
+
+    @Override
+    public int evaluate(SearchBoard board) {
+        NnueAccumulator accumulator = board.accumulator();
+        if (accumulator == null || accumulator.network() != network) {
+            accumulator = new NnueAccumulator(network);
+            board.attach(accumulator);
+        }
+        int score = accumulator.evaluate(board.ply(), board.side());
+        return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+}
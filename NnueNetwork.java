@@ -0,0 +1,307 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * The quantized weights of a small NNUE-style evaluation network.
+ *
+ * The input is a set of binary features seen from one player's perspective: for every disc,
+ * its square, its type and whether it belongs to that player, plus one feature for each player's
+ * number of bombs and unflippable discs left. The first layer sums the int16 weights of the active
+ * features into an accumulator per perspective, which {@link NnueAccumulator} keeps up to date as
+ * moves are played. Both accumulators, the side to move's first, are clipped to 0..127 and feed a
+ * hidden layer with int8 weights and int32 sums, whose clipped outputs feed one int8 output neuron.
+ *
+ * Network files start with the magic "BOMBNNUE", then the format version, the number of features,
+ * the accumulator width and the hidden layer width as big-endian ints, followed by the feature
+ * weights (int16, feature by feature), the accumulator biases (int16), the hidden weights
+ * (int8, neuron by neuron), the hidden biases (int32), the output weights (int8) and the output bias (int32).
+ */
+public final class NnueNetwork {
+    public static final String DEFAULT_FILE = "nnue.bin"; // Name of the bundled network file
+    public static final String PROPERTY = "nnue.weights"; // System property naming a network file
+
+    private static final byte[] MAGIC = "BOMBNNUE".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int TYPES = DiscType.values().length;
+    private static final int DISC_FEATURES = 2 * TYPES * BitBoard.SQUARES; // Owner (own or opponent), type and square
+    private static final int BOMB_FEATURES = Player.initial_number_of_bombs + 1; // One per count, for each owner
+    private static final int UNFLIPPABLE_FEATURES = Player.initial_number_of_unflippedable + 1;
+    public static final int FEATURES = DISC_FEATURES + 2 * BOMB_FEATURES + 2 * UNFLIPPABLE_FEATURES;
+
+    static final int ACTIVATION_MAX = 127; // Clipped activations fit in an unsigned byte
+    private static final int HIDDEN_SHIFT = 6; // Hidden sums are scaled down by 64 before clipping
+    private static final int OUTPUT_SHIFT = 4; // The output sum is scaled down by 16 to evaluation units
+
+    private final int width; // Accumulator neurons per perspective
+    private final int hiddenSize; // Neurons of the hidden layer
+    final short[] featureWeights; // [feature * width + neuron]
+    final short[] featureBiases; // [neuron]
+    final short[] placeRows; // [disc][both perspectives' neurons]: weights of a new disc, by owner, type and square
+    final short[] flipRows; // [disc][both perspectives' neurons]: change when a disc turns to the given owner
+    final short[] bombRows; // [owner][count][both perspectives' neurons]: change when the count drops to count
+    final short[] unflippableRows; // The same for unflippable discs
+    private final byte[] hiddenWeights; // [neuron * 2 * width + input]
+    private final int[] hiddenWeightsWide; // The same widened to ints, which the JIT multiplies faster
+    private final int[] hiddenBiases;
+    private final byte[] outputWeights;
+    private final int outputBias;
+
+    NnueNetwork(int width, int hiddenSize, short[] featureWeights, short[] featureBiases,
+                byte[] hiddenWeights, int[] hiddenBiases, byte[] outputWeights, int outputBias) {
+        if (featureWeights.length != FEATURES * width || featureBiases.length != width
+                || hiddenWeights.length != hiddenSize * 2 * width || hiddenBiases.length != hiddenSize
+                || outputWeights.length != hiddenSize) {
+            throw new IllegalArgumentException("Layer sizes do not match");
+        }
+        this.width = width;
+        this.hiddenSize = hiddenSize;
+        this.featureWeights = featureWeights;
+        this.featureBiases = featureBiases;
+
+        // A move changes both perspectives at once, so the rows of both are stored side by side,
+        // and the two changes of a flip (old owner out, new owner in) are folded into one row
+        int row = 2 * width;
+        this.placeRows = new short[DISC_FEATURES * row];
+        this.flipRows = new short[DISC_FEATURES * row];
+        for (int owner = 0; owner < 2; owner++) {
+            for (DiscType type : DiscType.values()) {
+                for (int square = 0; square < BitBoard.SQUARES; square++) {
+                    int disc = discFeature(0, owner, type, square) * row;
+                    for (int perspective = 0; perspective < 2; perspective++) {
+                        int gained = discFeature(perspective, owner, type, square) * width;
+                        int lost = discFeature(perspective, owner ^ 1, type, square) * width;
+                        for (int i = 0; i < width; i++) {
+                            placeRows[disc + perspective * width + i] = featureWeights[gained + i];
+                            flipRows[disc + perspective * width + i] = (short) (featureWeights[gained + i] - featureWeights[lost + i]);
+                        }
+                    }
+                }
+            }
+        }
+        this.bombRows = new short[2 * BOMB_FEATURES * row];
+        this.unflippableRows = new short[2 * UNFLIPPABLE_FEATURES * row];
+        for (int owner = 0; owner < 2; owner++) {
+            for (int perspective = 0; perspective < 2; perspective++) {
+                for (int count = 0; count + 1 < BOMB_FEATURES; count++) {
+                    int to = bombFeature(perspective, owner, count) * width;
+                    int from = bombFeature(perspective, owner, count + 1) * width;
+                    for (int i = 0; i < width; i++) {
+                        bombRows[(owner * BOMB_FEATURES + count) * row + perspective * width + i] =
+                                (short) (featureWeights[to + i] - featureWeights[from + i]);
+                    }
+                }
+                for (int count = 0; count + 1 < UNFLIPPABLE_FEATURES; count++) {
+                    int to = unflippableFeature(perspective, owner, count) * width;
+                    int from = unflippableFeature(perspective, owner, count + 1) * width;
+                    for (int i = 0; i < width; i++) {
+                        unflippableRows[(owner * UNFLIPPABLE_FEATURES + count) * row + perspective * width + i] =
+                                (short) (featureWeights[to + i] - featureWeights[from + i]);
+                    }
+                }
+            }
+        }
+        this.hiddenWeights = hiddenWeights;
+        this.hiddenWeightsWide = new int[hiddenWeights.length];
+        for (int i = 0; i < hiddenWeights.length; i++) {
+            hiddenWeightsWide[i] = hiddenWeights[i];
+        }
+        this.hiddenBiases = hiddenBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Gets the feature of a disc, as seen by one player.
+     *
+     * @param perspective The player whose view it is, 0 or 1.
+     * @param owner       The owner of the disc, 0 or 1.
+     * @param type        The type of the disc.
+     * @param square      The square of the disc.
+     * @return The feature index.
+     */
+    public static int discFeature(int perspective, int owner, DiscType type, int square) {
+        return ((owner ^ perspective) * TYPES + type.ordinal()) * BitBoard.SQUARES + square;
+    }
+
+    /**
+     * Gets the feature of the number of bombs a player has left, as seen by one player.
+     *
+     * @param perspective The player whose view it is, 0 or 1.
+     * @param owner       The player holding the bombs, 0 or 1.
+     * @param count       The number of bombs left.
+     * @return The feature index.
+     */
+    public static int bombFeature(int perspective, int owner, int count) {
+        return DISC_FEATURES + (owner ^ perspective) * BOMB_FEATURES + count;
+    }
+
+    /**
+     * Gets the feature of the number of unflippable discs a player has left, as seen by one player.
+     *
+     * @param perspective The player whose view it is, 0 or 1.
+     * @param owner       The player holding the discs, 0 or 1.
+     * @param count       The number of unflippable discs left.
+     * @return The feature index.
+     */
+    public static int unflippableFeature(int perspective, int owner, int count) {
+        return DISC_FEATURES + 2 * BOMB_FEATURES + (owner ^ perspective) * UNFLIPPABLE_FEATURES + count;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Gets the row of a disc in {@link #placeRows} and {@link #flipRows}.
+     *
+     * @param owner  The owner of the disc, 0 or 1.
+     * @param type   The type of the disc.
+     * @param square The square of the disc.
+     * @return The index of the row's first element.
+     */
+    int discRow(int owner, DiscType type, int square) {
+        return discFeature(0, owner, type, square) * 2 * width;
+    }
+
+    /**
+     * Gets the row of a special-disc count in {@link #bombRows} or {@link #unflippableRows}.
+     *
+     * @param owner The player holding the discs, 0 or 1.
+     * @param type  BOMB or UNFLIPPABLE.
+     * @param count The count after the move.
+     * @return The index of the row's first element.
+     */
+    int countRow(int owner, DiscType type, int count) {
+        int counts = type == DiscType.BOMB ? BOMB_FEATURES : UNFLIPPABLE_FEATURES;
+        return (owner * counts + count) * 2 * width;
+    }
+
+    /**
+     * Runs the layers after the accumulators.
+     *
+     * @param inputs The clipped accumulators, the side to move's first, between 0 and {@value #ACTIVATION_MAX}.
+     * @return The score for the side to move.
+     */
+    int evaluate(int[] inputs) {
+        int inputCount = 2 * width;
+        int output = outputBias;
+        for (int neuron = 0; neuron < hiddenSize; neuron++) {
+            int weights = neuron * inputCount;
+            int sum = hiddenBiases[neuron];
+            for (int i = 0; i < inputCount; i++) {
+                sum += inputs[i] * hiddenWeightsWide[weights + i];
+            }
+            output += Math.min(Math.max(sum >> HIDDEN_SHIFT, 0), ACTIVATION_MAX) * outputWeights[neuron];
+        }
+        return output >> OUTPUT_SHIFT;
+    }
+
+    /**
+     * Reads a network file.
+     *
+     * @param file The network file.
+     * @return The network.
+     * @throws IOException If the file cannot be read or is not a network of this version.
+     */
+    public static NnueNetwork load(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Loads the configured network: the file named by the {@value #PROPERTY} system property,
+     * else the classpath resource {@value #DEFAULT_FILE}, else the file of that name in the working directory.
+     *
+     * @return The network, or null if none is available.
+     */
+    public static NnueNetwork loadDefault() {
+        String configured = System.getProperty(PROPERTY);
+        try {
+            if (configured != null) {
+                return load(Paths.get(configured));
+            }
+            try (InputStream in = NnueNetwork.class.getResourceAsStream("/" + DEFAULT_FILE)) {
+                if (in != null) {
+                    return read(in);
+                }
+            }
+            Path file = Paths.get(DEFAULT_FILE);
+            return Files.isRegularFile(file) ? load(file) : null;
+        } catch (IOException e) {
+            System.err.println("Could not load the evaluation network: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static NnueNetwork read(InputStream source) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(source));
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC) || in.readInt() != VERSION) {
+            throw new IOException("Not a network file of version " + VERSION);
+        }
+        int features = in.readInt();
+        int width = in.readInt();
+        int hiddenSize = in.readInt();
+        if (features != FEATURES || width <= 0 || hiddenSize <= 0) {
+            throw new IOException("Unexpected network shape " + features + "x" + width + "x" + hiddenSize);
+        }
+        short[] featureWeights = new short[FEATURES * width];
+        for (int i = 0; i < featureWeights.length; i++) {
+            featureWeights[i] = in.readShort();
+        }
+        short[] featureBiases = new short[width];
+        for (int i = 0; i < width; i++) {
+            featureBiases[i] = in.readShort();
+        }
+        byte[] hiddenWeights = new byte[hiddenSize * 2 * width];
+        in.readFully(hiddenWeights);
+        int[] hiddenBiases = new int[hiddenSize];
+        for (int i = 0; i < hiddenSize; i++) {
+            hiddenBiases[i] = in.readInt();
+        }
+        byte[] outputWeights = new byte[hiddenSize];
+        in.readFully(outputWeights);
+        int outputBias = in.readInt();
+        return new NnueNetwork(width, hiddenSize, featureWeights, featureBiases, hiddenWeights, hiddenBiases,
+                outputWeights, outputBias);
+    }
+
+    /**
+     * Writes the network in the file format read by {@link #load(Path)}.
+     *
+     * @param file The destination file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.write(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(FEATURES);
+            out.writeInt(width);
+            out.writeInt(hiddenSize);
+            for (short weight : featureWeights) {
+                out.writeShort(weight);
+            }
+            for (short bias : featureBiases) {
+                out.writeShort(bias);
+            }
+            out.write(hiddenWeights);
+            for (int bias : hiddenBiases) {
+                out.writeInt(bias);
+            }
+            out.write(outputWeights);
+            out.writeInt(outputBias);
+        }
+    }
+}
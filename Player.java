@@ -65,6 +65,17 @@ public abstract class Player {
         this.number_of_unflippedable = initial_number_of_unflippedable;
     }
 
+    /**
+     * Sets the special discs this player still holds, for example when a saved game state is restored.
+     *
+     * @param bombs          The number of bomb discs.
+     * @param unflippedables The number of unflippable discs.
+     */
+    public void set_bombs_and_unflippedable(int bombs, int unflippedables) {
+        this.number_of_bombs = bombs;
+        this.number_of_unflippedable = unflippedables;
+    }
+
     public void restoreUnFlippedable() {
         this.number_of_unflippedable++;
     }
@@ -1,13 +1,24 @@
 /**
  * Represents a position on the game board with a row and column.
+ * Positions are immutable values; the canonical instance of every square of the 8x8 board
+ * is shared through {@link #of(int, int)} and {@link #of(int)}, so scanning the board does not allocate.
  */
-public class Position {
+public final class Position {
 
-    private int row; // The row index of the position.
-    private int col; // The column index of the position.
+    private static final Position[] SQUARES = new Position[BitBoard.SQUARES]; // Canonical instance of every square
+
+    static {
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            SQUARES[square] = new Position(square / BitBoard.SIZE, square % BitBoard.SIZE);
+        }
+    }
+
+    private final int row; // The row index of the position.
+    private final int col; // The column index of the position.
 
     /**
      * Constructs a Position with the specified row and column indices.
+     * Prefer {@link #of(int, int)}, which returns the shared instance of the square.
      *
      * @param row The row index of the position.
      * @param col The column index of the position.
@@ -17,6 +28,31 @@ public class Position {
         this.col = col;
     }
 
+    /**
+     * Gets the canonical position of a square on the board.
+     * Coordinates outside the board get a new, unshared instance.
+     *
+     * @param row The row index of the position.
+     * @param col The column index of the position.
+     * @return The position of the square.
+     */
+    public static Position of(int row, int col) {
+        if (row >= 0 && row < BitBoard.SIZE && col >= 0 && col < BitBoard.SIZE) {
+            return SQUARES[BitBoard.index(row, col)];
+        }
+        return new Position(row, col);
+    }
+
+    /**
+     * Gets the canonical position of a square index.
+     *
+     * @param index The square index (row * 8 + col).
+     * @return The position of the square.
+     */
+    public static Position of(int index) {
+        return SQUARES[index];
+    }
+
     /**
      * Gets the row index of the position.
      *
@@ -35,6 +71,38 @@ public class Position {
         return this.col;
     }
 
+    /**
+     * Gets the square index of the position (row * 8 + col).
+     *
+     * @return The square index.
+     */
+    public int index() {
+        return BitBoard.index(this.row, this.col);
+    }
+
+    /**
+     * Two positions are equal when they have the same row and column.
+     *
+     * @param o The object to compare with.
+     * @return True if o is a position on the same square.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Position)) {
+            return false;
+        }
+        Position other = (Position) o;
+        return this.row == other.row && this.col == other.col;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.row + this.col;
+    }
+
     /**
      * Returns a string representation of the position in the format "(row, col)".
      *
@@ -0,0 +1,189 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parameters of Multi-ProbCut forward pruning.
+ * For a node searched to a deep depth D, a shallow search to depth d predicts the deep score as
+ * a * shallow + b, with a residual standard deviation sigma. If the prediction is beyond beta
+ * (or below alpha) by more than threshold * sigma, the node is cut without the deep search.
+ * Parameters are fitted per game stage and per (D, d) pair by {@link ProbCutCalibration};
+ * several pairs may exist for the same deep depth, and each is tried in turn.
+ *
+ * Parameter files hold one pair per line: stage, deep depth, shallow depth, a, b, sigma.
+ */
+public final class ProbCut {
+    public static final int STAGES = 4; // Game stages, by number of discs on the board
+    public static final int MAX_DEPTH = 16; // Deepest depth that can have parameters
+    public static final String DEFAULT_FILE = "probcut.params"; // Name of the bundled parameter file
+
+    private static final double DEFAULT_THRESHOLD = 1.5; // Cut when the prediction is 1.5 sigma past the bound
+
+    private final Pair[][][] pairs = new Pair[STAGES][MAX_DEPTH + 1][]; // Checks by stage and deep depth
+    private final double[] thresholds = new double[STAGES];
+
+    /**
+     * One fitted (deep, shallow) depth pair.
+     */
+    public static final class Pair {
+        public final int shallow; // Depth of the predicting search
+        public final double a; // Slope of the fit
+        public final double b; // Intercept of the fit
+        public final double sigma; // Standard deviation of the residuals
+
+        public Pair(int shallow, double a, double b, double sigma) {
+            this.shallow = shallow;
+            this.a = a;
+            this.b = b;
+            this.sigma = sigma;
+        }
+    }
+
+    /**
+     * Constructs an empty parameter set: no node is ever cut until pairs are added.
+     */
+    public ProbCut() {
+        for (int stage = 0; stage < STAGES; stage++) {
+            thresholds[stage] = DEFAULT_THRESHOLD;
+            for (int depth = 0; depth <= MAX_DEPTH; depth++) {
+                pairs[stage][depth] = new Pair[0];
+            }
+        }
+    }
+
+    /**
+     * Gets the game stage of a position.
+     *
+     * @param board The position.
+     * @return The stage, between 0 (opening) and STAGES - 1 (endgame).
+     */
+    public static int stage(SearchBoard board) {
+        int discs = Long.bitCount(~board.empty());
+        return Math.min(STAGES - 1, (discs - 4) * STAGES / (BitBoard.SQUARES - 4));
+    }
+
+    /**
+     * Adds a fitted pair.
+     *
+     * @param stage The game stage.
+     * @param deep  The deep depth the pair predicts.
+     * @param pair  The fitted parameters.
+     */
+    public void add(int stage, int deep, Pair pair) {
+        Pair[] old = pairs[stage][deep];
+        Pair[] grown = java.util.Arrays.copyOf(old, old.length + 1);
+        grown[old.length] = pair;
+        pairs[stage][deep] = grown;
+    }
+
+    /**
+     * Gets the pairs to check for a node.
+     *
+     * @param stage The game stage of the node.
+     * @param deep  The remaining depth of the node.
+     * @return The pairs, possibly empty; the array must not be modified.
+     */
+    public Pair[] pairs(int stage, int deep) {
+        return deep > MAX_DEPTH ? pairs[stage][MAX_DEPTH] : pairs[stage][deep];
+    }
+
+    /**
+     * Sets how many standard deviations past the bound a prediction must be to cut.
+     * Higher values prune less and err less.
+     *
+     * @param stage     The game stage.
+     * @param threshold The threshold in standard deviations.
+     */
+    public void setThreshold(int stage, double threshold) {
+        thresholds[stage] = threshold;
+    }
+
+    public double threshold(int stage) {
+        return thresholds[stage];
+    }
+
+    /**
+     * Reads parameters from a file.
+     *
+     * @param file The parameter file.
+     * @return The parameters.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static ProbCut load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Loads the bundled parameters: the classpath resource {@value #DEFAULT_FILE},
+     * or else the file of that name in the working directory.
+     *
+     * @return The parameters, or null if none are available.
+     */
+    public static ProbCut loadDefault() {
+        try (InputStream in = ProbCut.class.getResourceAsStream("/" + DEFAULT_FILE)) {
+            if (in != null) {
+                return read(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+            Path file = Paths.get(DEFAULT_FILE);
+            return Files.isRegularFile(file) ? load(file) : null;
+        } catch (IOException e) {
+            System.err.println("Could not load ProbCut parameters: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static ProbCut read(Reader source) throws IOException {
+        ProbCut probCut = new ProbCut();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            try {
+                if (fields[0].equals("threshold")) {
+                    probCut.setThreshold(Integer.parseInt(fields[1]), Double.parseDouble(fields[2]));
+                    continue;
+                }
+                probCut.add(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]),
+                        new Pair(Integer.parseInt(fields[2]), Double.parseDouble(fields[3]),
+                                Double.parseDouble(fields[4]), Double.parseDouble(fields[5])));
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed ProbCut line: " + line, e);
+            }
+        }
+        return probCut;
+    }
+
+    /**
+     * Writes the parameters in the file format read by {@link #load(Path)}.
+     *
+     * @return The parameter lines.
+     */
+    public List<String> toLines() {
+        List<String> lines = new ArrayList<>();
+        lines.add("# stage deep shallow a b sigma");
+        for (int stage = 0; stage < STAGES; stage++) {
+            lines.add(String.format(java.util.Locale.ROOT, "threshold %d %.2f", stage, thresholds[stage]));
+            for (int deep = 0; deep <= MAX_DEPTH; deep++) {
+                for (Pair pair : pairs[stage][deep]) {
+                    lines.add(String.format(java.util.Locale.ROOT, "%d %d %d %.4f %.2f %.2f",
+                            stage, deep, pair.shallow, pair.a, pair.b, pair.sigma));
+                }
+            }
+        }
+        return lines;
+    }
+}
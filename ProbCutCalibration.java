@@ -0,0 +1,182 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Offline tool that fits the Multi-ProbCut parameters from recorded games.
+ * Every position of every game is searched once to the deepest depth; the root score of each
+ * iteration gives the shallow and deep scores of every depth pair at once. A least-squares line
+ * deep = a * shallow + b is then fitted for each game stage and depth pair.
+ *
+ * Run it with: java ProbCutCalibration [games-file|-] [output-file] [max-positions]
+ * With "-" (or no arguments) the games are generated by self-play with random openings.
+ */
+public class ProbCutCalibration {
+    private static final int[][] DEPTH_PAIRS = {{3, 1}, {4, 2}, {5, 1}, {5, 3}, {6, 2}, {6, 4}}; // {deep, shallow}
+    private static final int MIN_SAMPLES = 30; // Fewer samples than this give no pair
+    private static final double MIN_SLOPE = 0.2; // Fits flatter than this cannot predict anything
+    private static final int GENERATED_GAMES = 60;
+    private static final int RANDOM_OPENING = 8; // Random plies at the start of a generated game
+    private static final int SELF_PLAY_DEPTH = 3;
+    private static final long SEED = 31L;
+    private static final int TABLE_SIZE_LOG2 = 18;
+
+    public static void main(String[] args) throws IOException {
+        List<GameRecord> games = args.length > 0 && !args[0].equals("-")
+                ? GameRecord.readAll(Paths.get(args[0])) : selfPlayGames(GENERATED_GAMES);
+        Path output = Paths.get(args.length > 1 ? args[1] : ProbCut.DEFAULT_FILE);
+        int maxPositions = args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE;
+
+        ProbCut probCut = calibrate(games, maxPositions);
+        Files.write(output, probCut.toLines(), StandardCharsets.UTF_8);
+        System.out.println("Wrote " + output);
+    }
+
+    /**
+     * Fits the parameters from the positions of the given games.
+     *
+     * @param games        The recorded games.
+     * @param maxPositions The maximum number of positions to search.
+     * @return The fitted parameters.
+     */
+    public static ProbCut calibrate(List<GameRecord> games, int maxPositions) {
+        int deepest = 0;
+        for (int[] pair : DEPTH_PAIRS) {
+            deepest = Math.max(deepest, pair[0]);
+        }
+        // One list of (shallow, deep) score points per stage and depth pair
+        List<List<double[]>> samples = new ArrayList<>();
+        for (int i = 0; i < ProbCut.STAGES * DEPTH_PAIRS.length; i++) {
+            samples.add(new ArrayList<>());
+        }
+
+        SearchEngine engine = newEngine();
+        int searched = 0;
+        for (GameRecord game : games) {
+            SearchBoard board = SearchBoard.initial();
+            for (int ply = 0; ply < game.size() && searched < maxPositions; ply++) {
+                if (!board.isGameOver()) {
+                    engine.getTable().clear(); // Deeper entries of earlier positions would leak into shallow scores
+                    SearchResult result = engine.search(board, deepest);
+                    searched++;
+                    if (result.depth() == deepest && !decided(engine, deepest)) {
+                        int stage = ProbCut.stage(board);
+                        for (int p = 0; p < DEPTH_PAIRS.length; p++) {
+                            samples.get(stage * DEPTH_PAIRS.length + p).add(new double[]{
+                                    engine.scoreAtDepth(DEPTH_PAIRS[p][1]), engine.scoreAtDepth(DEPTH_PAIRS[p][0])});
+                        }
+                    }
+                }
+                board.play(game.move(ply));
+            }
+            System.out.println("Searched " + searched + " positions");
+        }
+
+        ProbCut probCut = new ProbCut();
+        for (int stage = 0; stage < ProbCut.STAGES; stage++) {
+            for (int p = 0; p < DEPTH_PAIRS.length; p++) {
+                ProbCut.Pair pair = fit(DEPTH_PAIRS[p][1], samples.get(stage * DEPTH_PAIRS.length + p));
+                if (pair != null) {
+                    probCut.add(stage, DEPTH_PAIRS[p][0], pair);
+                    System.out.printf("stage %d  %d->%d  a=%.3f b=%.2f sigma=%.2f%n",
+                            stage, DEPTH_PAIRS[p][1], DEPTH_PAIRS[p][0], pair.a, pair.b, pair.sigma);
+                }
+            }
+        }
+        return probCut;
+    }
+
+    /**
+     * Fits deep = a * shallow + b by least squares.
+     *
+     * @return The pair, or null if there are too few samples or the fit is useless.
+     */
+    private static ProbCut.Pair fit(int shallow, List<double[]> points) {
+        int n = points.size();
+        if (n < MIN_SAMPLES) {
+            return null;
+        }
+        double meanX = 0;
+        double meanY = 0;
+        for (double[] point : points) {
+            meanX += point[0];
+            meanY += point[1];
+        }
+        meanX /= n;
+        meanY /= n;
+        double covariance = 0;
+        double variance = 0;
+        for (double[] point : points) {
+            covariance += (point[0] - meanX) * (point[1] - meanY);
+            variance += (point[0] - meanX) * (point[0] - meanX);
+        }
+        if (variance == 0) {
+            return null;
+        }
+        double a = covariance / variance;
+        double b = meanY - a * meanX;
+        double residuals = 0;
+        for (double[] point : points) {
+            double error = point[1] - (a * point[0] + b);
+            residuals += error * error;
+        }
+        double sigma = Math.sqrt(residuals / (n - 2));
+        return a < MIN_SLOPE ? null : new ProbCut.Pair(shallow, a, b, sigma);
+    }
+
+    /**
+     * Checks whether any iteration saw a won or lost game; such scores would distort the fit.
+     */
+    private static boolean decided(SearchEngine engine, int deepest) {
+        for (int depth = 1; depth <= deepest; depth++) {
+            if (Math.abs(engine.scoreAtDepth(depth)) >= SearchEngine.WIN / 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generates games by self-play, starting each from a few random moves.
+     *
+     * @param count The number of games.
+     * @return The games.
+     */
+    public static List<GameRecord> selfPlayGames(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        SearchEngine engine = newEngine();
+        List<GameRecord> games = new ArrayList<>();
+        int[] buffer = new int[SearchBoard.MAX_MOVES];
+        for (int game = 0; game < count; game++) {
+            SearchBoard board = SearchBoard.initial();
+            List<Integer> moves = new ArrayList<>();
+            while (!board.isGameOver()) {
+                int move;
+                if (board.mustPass()) {
+                    move = SearchBoard.PASS;
+                } else if (moves.size() < RANDOM_OPENING) {
+                    move = buffer[random.nextInt(board.generateMoves(buffer))];
+                } else {
+                    move = engine.search(board, SELF_PLAY_DEPTH).bestMove();
+                }
+                board.play(move);
+                moves.add(move);
+            }
+            games.add(new GameRecord(moves.stream().mapToInt(Integer::intValue).toArray()));
+        }
+        return games;
+    }
+
+    private static SearchEngine newEngine() {
+        SearchEngine engine = new SearchEngine(new TranspositionTable(TABLE_SIZE_LOG2),
+                new MoveOrdering(EnumSet.allOf(MoveOrdering.Heuristic.class)), new WeightedSquareEvaluator());
+        engine.setAlgorithm(SearchEngine.Algorithm.PVS);
+        return engine;
+    }
+}
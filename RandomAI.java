@@ -1,11 +1,21 @@
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * RandomAI is an AI player that selects a move at random from the list of valid moves.
  * It also chooses the type of disc to play (⬤, ⭕, 💣) randomly, depending on the available disc types.
+ * Each player draws from its own random stream. The stream is unpredictable unless the system property
+ * "random.seed" is set, in which case every run makes the same choices; tools that play many games
+ * give each player a stream of its own with {@link #setRandom(SplittableRandom)}.
  */
 public class RandomAI extends AIPlayer {
+    public static final String SEED_PROPERTY = "random.seed";
+    private static final DiscType[] ALL_TYPES = {DiscType.SIMPLE, DiscType.UNFLIPPABLE, DiscType.BOMB};
+    private static final DiscType[] NO_BOMBS = {DiscType.SIMPLE, DiscType.UNFLIPPABLE};
+    private static final DiscType[] NO_UNFLIPPABLES = {DiscType.SIMPLE, DiscType.BOMB};
+    private static final DiscType[] SIMPLE_ONLY = {DiscType.SIMPLE};
+
+    private SplittableRandom random; // Source of every choice of this player
 
     /**
      * Constructs a RandomAI instance.
@@ -14,6 +24,17 @@ public class RandomAI extends AIPlayer {
      */
     public RandomAI(boolean isPlayerOne) {
         super(isPlayerOne);
+        String seed = System.getProperty(SEED_PROPERTY);
+        this.random = seed != null ? new SplittableRandom(Long.parseLong(seed) + (isPlayerOne ? 0 : 1)) : new SplittableRandom();
+    }
+
+    /**
+     * Replaces the random stream of this player, to replay or to separate its choices.
+     *
+     * @param random The stream to draw from from now on; it must not be shared with another thread.
+     */
+    public void setRandom(SplittableRandom random) {
+        this.random = random;
     }
 
     /**
@@ -25,8 +46,7 @@ public class RandomAI extends AIPlayer {
     @Override
     public Move makeMove(PlayableLogic gameStatus) {
         List<Position> positions = gameStatus.ValidMoves(); // Get the list of valid moves.
-        Random rand = new Random();
-        int index = rand.nextInt(positions.size()); // Select a random position index.
+        int index = random.nextInt(positions.size()); // Select a random position index.
         Position p = positions.get(index); // Get the random position.
         return new Move(p, randomTypeDisc()); // Create a move with the position and a random disc type.
     }
@@ -34,43 +54,32 @@ public class RandomAI extends AIPlayer {
     /**
      * Selects a random disc type (⬤, ⭕, 💣) based on the availability of each type.
      *
-     * @return A disc of a random type that the player can place, or null if no valid types are available.
+     * @return A disc of a random type that the player can place.
      */
     public Disc randomTypeDisc() {
-        String[] str = returnArrayOfDisc(); // Get the array of valid disc types.
-        Random rand = new Random();
-        int index = rand.nextInt(str.length); // Select a random type from the array.
-        String type = str[index];
-        if (type.equals("⬤")) {
-            return new SimpleDisc(this);
-        }
-        if (type.equals("⭕")) {
-            return new UnflippableDisc(this);
-        }
-        if (type.equals("💣")) {
-            return new BombDisc(this);
-        }
-        return null; // Should not occur if the array is constructed properly.
+        DiscType[] types = availableDiscTypes(); // Get the valid disc types.
+        int index = random.nextInt(types.length); // Select a random type from the array.
+        return types[index].create(this);
     }
 
     /**
-     * Returns an array of available disc types based on the player's remaining bombs and unflippable discs.
+     * Returns the disc types available based on the player's remaining bombs and unflippable discs.
+     * The returned arrays are shared constants and must not be modified.
      *
-     * @return An array of strings representing the available disc types.
+     * @return An array of the disc types the player can place.
      */
-    public String[] returnArrayOfDisc() {
-        if (this.getNumber_of_bombs() > 0 && this.getNumber_of_unflippedable() > 0) {
-            return new String[]{"⬤", "⭕", "💣"}; // All types available.
-        }
-        if (this.getNumber_of_bombs() == 0 && this.getNumber_of_unflippedable() > 0) {
-            return new String[]{"⬤", "⭕"}; // Bombs unavailable.
+    public DiscType[] availableDiscTypes() {
+        boolean hasBombs = this.getNumber_of_bombs() > 0;
+        boolean hasUnflippables = this.getNumber_of_unflippedable() > 0;
+        if (hasBombs && hasUnflippables) {
+            return ALL_TYPES; // All types available.
         }
-        if (this.getNumber_of_bombs() > 0 && this.getNumber_of_unflippedable() == 0) {
-            return new String[]{"⬤", "💣"}; // Unflippable discs unavailable.
+        if (hasUnflippables) {
+            return NO_BOMBS; // Bombs unavailable.
         }
-        if (this.getNumber_of_bombs() == 0 && this.getNumber_of_unflippedable() == 0) {
-            return new String[]{"⬤"}; // Only normal discs available.
+        if (hasBombs) {
+            return NO_UNFLIPPABLES; // Unflippable discs unavailable.
         }
-        return null; // Fallback for unexpected cases.
+        return SIMPLE_ONLY; // Only normal discs available.
     }
 }
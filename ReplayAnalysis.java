@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Evaluates every ply of a replayed game on a background thread.
+ * The worker always takes the unanalyzed ply nearest to the focus (normally the replay cursor),
+ * so the position being looked at is ready first, and scrubbing never waits for the engine.
+ * Results are kept in a cache keyed by position, which can be shared between analyses
+ * so that openings and transpositions seen in earlier games are not searched again.
+ *
+ * Run it headless with: java ReplayAnalysis games-file [game-index] [depth]
+ */
+public class ReplayAnalysis implements AutoCloseable {
+    private static final int DEFAULT_DEPTH = 6;
+    private static final int TABLE_SIZE_LOG2 = 20;
+
+    private final GameReplay replay;
+    private final int depth;
+    private final Map<GameSnapshot, SearchResult> cache;
+    private final AtomicReferenceArray<SearchResult> results; // Result of every ply, null until analyzed
+    private final Thread worker;
+    private volatile int focus; // Ply to analyze first
+    private volatile boolean closed;
+    private volatile IntConsumer listener; // Called on the worker thread with every analyzed ply
+
+    /**
+     * Constructs an analysis with its own result cache. Call {@link #start()} to begin.
+     *
+     * @param replay The replayed game.
+     * @param depth  The search depth of every ply.
+     */
+    public ReplayAnalysis(GameReplay replay, int depth) {
+        this(replay, depth, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Constructs an analysis. Call {@link #start()} to begin.
+     *
+     * @param replay The replayed game.
+     * @param depth  The search depth of every ply.
+     * @param cache  The result cache, possibly shared with other analyses.
+     */
+    public ReplayAnalysis(GameReplay replay, int depth, Map<GameSnapshot, SearchResult> cache) {
+        this.replay = replay;
+        this.depth = depth;
+        this.cache = cache;
+        this.results = new AtomicReferenceArray<>(replay.size() + 1);
+        this.worker = new Thread(this::run, "replay-analysis");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * Starts the background thread.
+     */
+    public void start() {
+        worker.start();
+    }
+
+    /**
+     * Sets the ply to analyze first, normally the ply the replay shows.
+     *
+     * @param ply The ply.
+     */
+    public void setFocus(int ply) {
+        this.focus = ply;
+    }
+
+    /**
+     * Sets the callback run after each ply is analyzed. It runs on the analysis thread,
+     * so a GUI must hand it over to its own thread.
+     *
+     * @param listener The callback, receiving the analyzed ply, or null.
+     */
+    public void setListener(IntConsumer listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Gets the evaluation of a ply.
+     *
+     * @param ply The ply.
+     * @return The search result for the side to move at that ply, or null if it is not analyzed yet.
+     */
+    public SearchResult result(int ply) {
+        return results.get(ply);
+    }
+
+    /**
+     * Gets the evaluation of a ply from player 1's point of view, as shown on a score graph.
+     *
+     * @param ply The ply; it must be analyzed.
+     * @return The score for player 1.
+     */
+    public int scoreForFirstPlayer(int ply) {
+        int score = results.get(ply).score();
+        return replay.positionAt(ply).side() == 0 ? score : -score;
+    }
+
+    /**
+     * Checks whether every ply has been analyzed.
+     *
+     * @return True when the analysis is complete.
+     */
+    public boolean isComplete() {
+        return nextPly() < 0;
+    }
+
+    /**
+     * Waits until every ply is analyzed or the analysis is closed.
+     *
+     * @throws InterruptedException If the waiting thread is interrupted.
+     */
+    public void awaitCompletion() throws InterruptedException {
+        worker.join();
+    }
+
+    /**
+     * Stops the analysis after the search in progress.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    private void run() {
+        SearchEngine engine = AlphaBetaAI.newEngine(new TranspositionTable(TABLE_SIZE_LOG2));
+        int ply;
+        while (!closed && (ply = nextPly()) >= 0) {
+            GameSnapshot position = replay.positionAt(ply);
+            SearchResult result = cache.get(position);
+            if (result == null || result.depth() < depth) {
+                result = engine.search(position.toSearchBoard(), depth);
+                cache.put(position, result);
+            }
+            results.set(ply, result);
+            IntConsumer callback = listener;
+            if (callback != null) {
+                callback.accept(ply);
+            }
+        }
+    }
+
+    /**
+     * Finds the unanalyzed ply nearest to the focus, preferring the later one on ties.
+     *
+     * @return The ply, or -1 if every ply is analyzed.
+     */
+    private int nextPly() {
+        int center = Math.max(0, Math.min(focus, results.length() - 1));
+        for (int distance = 0; distance < results.length(); distance++) {
+            int after = center + distance;
+            if (after < results.length() && results.get(after) == null) {
+                return after;
+            }
+            int before = center - distance;
+            if (before >= 0 && results.get(before) == null) {
+                return before;
+            }
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: java ReplayAnalysis games-file [game-index] [depth]");
+            return;
+        }
+        List<GameRecord> games = GameRecord.readAll(Paths.get(args[0]));
+        GameRecord game = games.get(args.length > 1 ? Integer.parseInt(args[1]) : 0);
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+
+        GameReplay replay = new GameReplay(game);
+        ReplayAnalysis analysis = new ReplayAnalysis(replay, depth);
+        analysis.start();
+        analysis.awaitCompletion();
+        for (int ply = 0; ply <= replay.size(); ply++) {
+            SearchResult result = analysis.result(ply);
+            String played = ply < replay.size() ? GameRecord.format(replay.record().move(ply)) : "-";
+            String best = result.bestMove() == SearchBoard.NO_MOVE ? "-" : GameRecord.format(result.bestMove());
+            System.out.printf("%3d  played %-5s best %-5s score %7d%n", ply, played, best, analysis.scoreForFirstPlayer(ply));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+import java.util.SplittableRandom;
+
+/**
+ * Plays games to the end at random as fast as possible, for AIs that judge a position by simulating it.
+ * A rollout works on a few longs and ints copied from a {@link SearchBoard}: there is no undo history,
+ * no move list and no object per move. Each ply generates the candidate squares once, takes one random
+ * number, and derives from it both the square and the disc type, chosen uniformly among the types the
+ * mover still holds, as {@link RandomAI} does. Only the flips of the chosen square are computed.
+ *
+ * Run it with: java RolloutEngine [rollouts]
+ * to measure the rollouts per second from the starting position with each policy.
+ */
+public final class RolloutEngine {
+    private static final long CORNERS = 0x8100000000000081L;
+    private static final long X_SQUARES = 0x0042000000004200L; // Diagonal neighbors of the corners
+    private static final int DEFAULT_ROUNDS = 5; // Timed rounds in the benchmark; the fastest counts
+
+    /**
+     * How the squares of a rollout are chosen.
+     */
+    public enum Policy {
+        UNIFORM, // Every legal square is equally likely
+        CORNERS // A corner when one is legal, otherwise any square but an X-square if there is one
+    }
+
+    private final Policy policy;
+    private final SplittableRandom random; // Owned by this engine; it must not be shared with another thread
+
+    // State of the rollout being played
+    private long discs0;
+    private long discs1;
+    private long bombs;
+    private long unflippables;
+    private int bombsLeft0;
+    private int bombsLeft1;
+    private int unflippablesLeft0;
+    private int unflippablesLeft1;
+
+    /**
+     * Constructs a rollout engine.
+     *
+     * @param policy The way squares are chosen.
+     * @param random The random stream of the rollouts.
+     */
+    public RolloutEngine(Policy policy, SplittableRandom random) {
+        this.policy = policy;
+        this.random = random;
+    }
+
+    /**
+     * Plays a position to the end at random. Passes are played when needed.
+     *
+     * @param board The position; it is not changed.
+     * @return The final disc difference from the point of view of the side to move in the position.
+     */
+    public int rollout(SearchBoard board) {
+        discs0 = board.discs(0);
+        discs1 = board.discs(1);
+        bombs = board.bombs();
+        unflippables = board.unflippables();
+        bombsLeft0 = board.bombsLeft(0);
+        bombsLeft1 = board.bombsLeft(1);
+        unflippablesLeft0 = board.unflippablesLeft(0);
+        unflippablesLeft1 = board.unflippablesLeft(1);
+        int side = board.side();
+        boolean passed = false;
+        while (true) {
+            long own = side == 0 ? discs0 : discs1;
+            long opp = side == 0 ? discs1 : discs0;
+            if (!play(side, own, opp)) {
+                if (passed) {
+                    break; // Neither player can move
+                }
+                passed = true;
+            } else {
+                passed = false;
+            }
+            side ^= 1;
+        }
+        int difference = Long.bitCount(discs0) - Long.bitCount(discs1);
+        return board.side() == 0 ? difference : -difference;
+    }
+
+    /**
+     * Plays a random legal move for one side.
+     * A candidate square whose bracketed discs are all unflippable is not legal; it is only found out
+     * when the square is drawn, and then another one is drawn, which keeps the choice uniform over the
+     * legal squares without testing all of them.
+     *
+     * @param side The mover.
+     * @param own  The discs of the mover.
+     * @param opp  The discs of the opponent.
+     * @return False if the mover has no legal square and must pass.
+     */
+    private boolean play(int side, long own, long opp) {
+        long candidates = BitBoard.potentialMoves(own, opp);
+        long choice;
+        int square;
+        long bit;
+        long flipped;
+        while (true) {
+            if (candidates == 0) {
+                return false;
+            }
+            long pool = candidates;
+            if (policy == Policy.CORNERS) {
+                if ((pool & CORNERS) != 0) {
+                    pool &= CORNERS;
+                } else if ((pool & ~X_SQUARES) != 0) {
+                    pool &= ~X_SQUARES;
+                }
+            }
+            choice = random.nextLong(); // The high half picks the square and the low half the disc type
+            int skip = (int) (((choice >>> 32) * Long.bitCount(pool)) >>> 32); // Uniform in [0, count)
+            for (; skip > 0; skip--) {
+                pool &= pool - 1;
+            }
+            square = Long.numberOfTrailingZeros(pool);
+            bit = pool & -pool;
+            flipped = BitBoard.flips(square, own, opp, bombs) & ~unflippables;
+            if (flipped != 0) {
+                break;
+            }
+            candidates &= ~bit; // Only unflippable discs bracketed
+        }
+
+        int bombsLeft = side == 0 ? bombsLeft0 : bombsLeft1;
+        int unflippablesLeft = side == 0 ? unflippablesLeft0 : unflippablesLeft1;
+        int types = 1 + (bombsLeft > 0 ? 1 : 0) + (unflippablesLeft > 0 ? 1 : 0);
+        int type = (int) (((choice & 0xFFFFFFFFL) * types) >>> 32); // 0 simple, then unflippable, then bomb
+        if (type == 1 && unflippablesLeft == 0) {
+            type = 2;
+        }
+
+        own |= flipped | bit;
+        opp &= ~flipped;
+        switch (type) {
+            case 1:
+                unflippables |= bit;
+                if (side == 0) {
+                    unflippablesLeft0--;
+                } else {
+                    unflippablesLeft1--;
+                }
+                break;
+            case 2:
+                bombs |= bit;
+                if (side == 0) {
+                    bombsLeft0--;
+                } else {
+                    bombsLeft1--;
+                }
+                break;
+            default:
+                break;
+        }
+        if (side == 0) {
+            discs0 = own;
+            discs1 = opp;
+        } else {
+            discs1 = own;
+            discs0 = opp;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        int rollouts = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        SearchBoard start = SearchBoard.initial();
+        for (Policy policy : Policy.values()) {
+            RolloutEngine engine = new RolloutEngine(policy, new SplittableRandom(1));
+            double best = Double.MAX_VALUE;
+            long total = 0;
+            int wins = 0;
+            for (int round = 0; round < DEFAULT_ROUNDS; round++) {
+                long begin = System.nanoTime();
+                for (int i = 0; i < rollouts; i++) {
+                    int result = engine.rollout(start);
+                    total += result;
+                    if (result > 0) {
+                        wins++;
+                    }
+                }
+                best = Math.min(best, (System.nanoTime() - begin) / (double) rollouts);
+            }
+            int played = rollouts * DEFAULT_ROUNDS;
+            System.out.printf("%-8s %8.0f ns/rollout %10.0f rollouts/s  first player wins %.1f%%, mean difference %+.2f%n",
+                    policy, best, 1e9 / best, 100.0 * wins / played, total / (double) played);
+        }
+    }
+}
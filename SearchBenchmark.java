@@ -0,0 +1,217 @@
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures search performance over fixed suites of positions.
+ * The suites are generated from a fixed seed, so every run searches the same positions:
+ * a regular suite, and a bomb-heavy one where the random games spend bombs whenever they can.
+ * Run it with: java SearchBenchmark [depth] [ordering|algorithms|probcut|special|all]
+ */
+public class SearchBenchmark {
+    private static final long SUITE_SEED = 20240101L; // Seed of the position suite
+    private static final int SUITE_GAMES = 8; // Number of random games the suite is taken from
+    private static final int[] SUITE_PLIES = {8, 16, 24, 32, 40}; // Plies at which positions are taken
+    private static final int DEFAULT_DEPTH = 5;
+    private static final int TABLE_SIZE_LOG2 = 20;
+    private static final int ASPIRATION_WINDOW = 40; // Half-width used for the aspiration runs
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        String mode = args.length > 1 ? args[1] : "all";
+        List<SearchBoard> suite = positionSuite(false);
+        List<SearchBoard> bombSuite = positionSuite(true);
+        System.out.println("Suites of " + suite.size() + " regular and " + bombSuite.size()
+                + " bomb-heavy positions, depth " + depth);
+
+        if (mode.equals("ordering") || mode.equals("all")) {
+            orderingAblation(suite, depth);
+        }
+        if (mode.equals("algorithms") || mode.equals("all")) {
+            System.out.println("-- Algorithms, regular suite --");
+            compareAlgorithms(suite, depth);
+            System.out.println("-- Algorithms, bomb-heavy suite --");
+            compareAlgorithms(bombSuite, depth);
+        }
+        if (mode.equals("probcut") || mode.equals("all")) {
+            ProbCut probCut = ProbCut.loadDefault();
+            if (probCut == null) {
+                System.out.println("No ProbCut parameters found; run ProbCutCalibration first");
+            } else {
+                System.out.println("-- Multi-ProbCut --");
+                compareProbCut(suite, depth, probCut);
+                compareProbCut(bombSuite, depth, probCut);
+            }
+        }
+        if (mode.equals("special") || mode.equals("all")) {
+            System.out.println("-- Special-disc policy --");
+            compareSpecialPolicy(suite, depth);
+            compareSpecialPolicy(bombSuite, depth);
+        }
+    }
+
+    /**
+     * Builds the regular position suite.
+     *
+     * @return The positions, each with an empty undo history.
+     */
+    public static List<SearchBoard> positionSuite() {
+        return positionSuite(false);
+    }
+
+    /**
+     * Builds a position suite by playing seeded random moves from the starting position.
+     *
+     * @param bombHeavy True to play a bomb whenever one is available.
+     * @return The positions, each with an empty undo history.
+     */
+    public static List<SearchBoard> positionSuite(boolean bombHeavy) {
+        SplittableRandom random = new SplittableRandom(SUITE_SEED);
+        List<SearchBoard> suite = new ArrayList<>();
+        int[] moves = new int[SearchBoard.MAX_MOVES];
+        for (int game = 0; game < SUITE_GAMES; game++) {
+            SearchBoard board = SearchBoard.initial();
+            int ply = 0;
+            for (int target : SUITE_PLIES) {
+                while (ply < target && !board.isGameOver()) {
+                    int count = board.generateMoves(moves);
+                    int move = count == 0 ? SearchBoard.PASS : moves[random.nextInt(count)];
+                    if (bombHeavy && move != SearchBoard.PASS && board.bombsLeft(board.side()) > 0) {
+                        move = SearchBoard.move(SearchBoard.square(move), DiscType.BOMB);
+                    }
+                    board.play(move);
+                    ply++;
+                }
+                if (board.isGameOver()) {
+                    break;
+                }
+                suite.add(board.copy());
+            }
+        }
+        return suite;
+    }
+
+    /**
+     * Searches the suite with all ordering heuristics, then with each one switched off, and with none.
+     */
+    private static void orderingAblation(List<SearchBoard> suite, int depth) {
+        System.out.println("-- Move ordering --");
+        report("all heuristics", suite, depth, EnumSet.allOf(MoveOrdering.Heuristic.class));
+        for (MoveOrdering.Heuristic heuristic : MoveOrdering.Heuristic.values()) {
+            EnumSet<MoveOrdering.Heuristic> enabled = EnumSet.allOf(MoveOrdering.Heuristic.class);
+            enabled.remove(heuristic);
+            report("without " + heuristic, suite, depth, enabled);
+        }
+        report("no ordering", suite, depth, EnumSet.noneOf(MoveOrdering.Heuristic.class));
+    }
+
+    /**
+     * Searches the suite with every algorithm and reports nodes and time to each depth.
+     */
+    private static void compareAlgorithms(List<SearchBoard> suite, int depth) {
+        compare("alpha-beta", suite, depth, SearchEngine.Algorithm.ALPHA_BETA, 0);
+        compare("alpha-beta + aspiration", suite, depth, SearchEngine.Algorithm.ALPHA_BETA, ASPIRATION_WINDOW);
+        compare("PVS", suite, depth, SearchEngine.Algorithm.PVS, 0);
+        compare("PVS + aspiration", suite, depth, SearchEngine.Algorithm.PVS, ASPIRATION_WINDOW);
+        compare("MTD(f)", suite, depth, SearchEngine.Algorithm.MTDF, 0);
+    }
+
+    private static void compare(String name, List<SearchBoard> suite, int depth, SearchEngine.Algorithm algorithm, int window) {
+        long[] nodes = new long[depth + 1];
+        long[] nanos = new long[depth + 1];
+        for (SearchBoard position : suite) {
+            SearchEngine engine = new SearchEngine(new TranspositionTable(TABLE_SIZE_LOG2),
+                    new MoveOrdering(EnumSet.allOf(MoveOrdering.Heuristic.class)), new WeightedSquareEvaluator());
+            engine.setAlgorithm(algorithm);
+            engine.setAspirationWindow(window);
+            SearchResult result = engine.search(position.copy(), depth);
+            for (int d = 1; d <= result.depth(); d++) {
+                nodes[d] += engine.nodesToDepth(d);
+                nanos[d] += engine.timeToDepth(d);
+            }
+        }
+        StringBuilder line = new StringBuilder(String.format("%-26s", name));
+        for (int d = 1; d <= depth; d++) {
+            line.append(String.format("  d%d %9d n %6d ms", d, nodes[d], nanos[d] / 1_000_000));
+        }
+        System.out.println(line);
+    }
+
+    /**
+     * Searches the suite with and without ProbCut, reporting the node saving
+     * and how often the pruned search still picks the same move.
+     */
+    private static void compareProbCut(List<SearchBoard> suite, int depth, ProbCut probCut) {
+        long fullNodes = 0;
+        long prunedNodes = 0;
+        long fullNanos = 0;
+        long prunedNanos = 0;
+        int sameMove = 0;
+        for (SearchBoard position : suite) {
+            SearchEngine full = newPvsEngine();
+            SearchResult expected = full.search(position.copy(), depth);
+            SearchEngine pruned = newPvsEngine();
+            pruned.setProbCut(probCut);
+            SearchResult actual = pruned.search(position.copy(), depth);
+            fullNodes += expected.nodes();
+            prunedNodes += actual.nodes();
+            fullNanos += expected.nanos();
+            prunedNanos += actual.nanos();
+            if (expected.bestMove() == actual.bestMove()) {
+                sameMove++;
+            }
+        }
+        System.out.printf("full %d n %d ms, ProbCut %d n %d ms, same best move %d/%d%n",
+                fullNodes, fullNanos / 1_000_000, prunedNodes, prunedNanos / 1_000_000, sameMove, suite.size());
+    }
+
+    /**
+     * Searches the suite expanding every special-disc move, then with the special-disc policy.
+     */
+    private static void compareSpecialPolicy(List<SearchBoard> suite, int depth) {
+        long fullNodes = 0;
+        long policyNodes = 0;
+        long fullNanos = 0;
+        long policyNanos = 0;
+        int sameSquare = 0;
+        SpecialDiscPolicy policy = new SpecialDiscPolicy();
+        for (SearchBoard position : suite) {
+            SearchResult expected = newPvsEngine().search(position.copy(), depth);
+            SearchEngine engine = newPvsEngine();
+            engine.setSpecialDiscPolicy(policy);
+            SearchResult actual = engine.search(position.copy(), depth);
+            fullNodes += expected.nodes();
+            policyNodes += actual.nodes();
+            fullNanos += expected.nanos();
+            policyNanos += actual.nanos();
+            if (SearchBoard.square(expected.bestMove()) == SearchBoard.square(actual.bestMove())) {
+                sameSquare++;
+            }
+        }
+        double kept = 100.0 * policy.getExpanded() / Math.max(1, policy.getExpanded() + policy.getSkipped());
+        System.out.printf("all specials %d n %d ms, policy %d n %d ms (%.0f%% of moves kept), same square %d/%d%n",
+                fullNodes, fullNanos / 1_000_000, policyNodes, policyNanos / 1_000_000, kept, sameSquare, suite.size());
+    }
+
+    private static SearchEngine newPvsEngine() {
+        SearchEngine engine = new SearchEngine(new TranspositionTable(TABLE_SIZE_LOG2),
+                new MoveOrdering(EnumSet.allOf(MoveOrdering.Heuristic.class)), new WeightedSquareEvaluator());
+        engine.setAlgorithm(SearchEngine.Algorithm.PVS);
+        engine.setAspirationWindow(ASPIRATION_WINDOW);
+        return engine;
+    }
+
+    private static void report(String name, List<SearchBoard> suite, int depth, EnumSet<MoveOrdering.Heuristic> enabled) {
+        MoveOrdering ordering = new MoveOrdering(enabled);
+        long nodes = 0;
+        long nanos = 0;
+        for (SearchBoard position : suite) {
+            SearchEngine engine = new SearchEngine(new TranspositionTable(TABLE_SIZE_LOG2), ordering, new WeightedSquareEvaluator());
+            SearchResult result = engine.search(position.copy(), depth);
+            nodes += result.nodes();
+            nanos += result.nanos();
+        }
+        System.out.printf("%-26s nodes %12d  time %8d ms  %s%n", name, nodes, nanos / 1_000_000, ordering.report());
+    }
+}
@@ -0,0 +1,460 @@
+import java.util.SplittableRandom;
+
+/**
+ * A compact, mutable copy of the game used by the search AIs.
+ * Discs are stored as bit masks (see {@link BitBoard}), moves are encoded as ints
+ * and every played move can be taken back with {@link #undo()}, so a search never allocates.
+ * The rules are the same as in GameLogic, including bombs and unflippable discs.
+ */
+public final class SearchBoard {
+    public static final int MAX_MOVES = BitBoard.SQUARES * 3; // Every square with every disc type
+    public static final int MAX_PLY = 128; // Deepest line that can be played on one board
+    public static final int NO_MOVE = -1; // Marks the absence of a move
+    public static final int PASS = 0xFF; // Passing the turn; no disc type has this ordinal
+
+    private static final long[][] OWNER_KEYS = new long[2][BitBoard.SQUARES]; // Zobrist keys of the disc owners
+    private static final long[] FLIP_KEYS = new long[BitBoard.SQUARES]; // Changing owner of a square
+    private static final long[][] TYPE_KEYS = new long[3][BitBoard.SQUARES]; // Zobrist keys of special discs
+    private static final long[][] BOMB_KEYS = new long[2][Player.initial_number_of_bombs + 1];
+    private static final long[][] UNFLIPPABLE_KEYS = new long[2][Player.initial_number_of_unflippedable + 1];
+    private static final long SIDE_KEY;
+    private static final DiscType[] TYPES = DiscType.values(); // Disc types by ordinal
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_0F_0DDL);
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            OWNER_KEYS[0][square] = random.nextLong();
+            OWNER_KEYS[1][square] = random.nextLong();
+            FLIP_KEYS[square] = OWNER_KEYS[0][square] ^ OWNER_KEYS[1][square];
+            TYPE_KEYS[DiscType.UNFLIPPABLE.ordinal()][square] = random.nextLong();
+            TYPE_KEYS[DiscType.BOMB.ordinal()][square] = random.nextLong();
+        }
+        for (int side = 0; side < 2; side++) {
+            for (int i = 0; i < BOMB_KEYS[side].length; i++) {
+                BOMB_KEYS[side][i] = random.nextLong();
+            }
+            for (int i = 0; i < UNFLIPPABLE_KEYS[side].length; i++) {
+                UNFLIPPABLE_KEYS[side][i] = random.nextLong();
+            }
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private final long[] discs = new long[2]; // Discs of player 1 (index 0) and player 2 (index 1)
+    private long bombs; // Squares holding a bomb disc
+    private long unflippables; // Squares holding an unflippable disc
+    private final int[] bombsLeft = new int[2]; // Remaining bombs of each player
+    private final int[] unflippablesLeft = new int[2]; // Remaining unflippable discs of each player
+    private int side; // 0 when player 1 is to move, 1 for player 2
+    private long hash; // Zobrist hash of the whole state
+
+    // Undo stack, one entry per played move
+    private int ply;
+    private final long[] savedDiscs0 = new long[MAX_PLY];
+    private final long[] savedDiscs1 = new long[MAX_PLY];
+    private final long[] savedHash = new long[MAX_PLY];
+    private final int[] savedMove = new int[MAX_PLY];
+
+    private NnueAccumulator accumulator; // Network sums kept up to date by play and undo, or null
+    private int accumulatorPly; // Lowest ply whose sums are valid
+
+    /**
+     * Constructs an empty board with player 1 to move.
+     */
+    public SearchBoard() {
+    }
+
+    /**
+     * Builds a search board from the current state of a game.
+     *
+     * @param game The game to copy.
+     * @return A new board holding the same discs, inventories and side to move.
+     */
+    public static SearchBoard from(PlayableLogic game) {
+        return GameSnapshot.of(game).toSearchBoard();
+    }
+
+    /**
+     * Builds the standard starting position with full inventories.
+     *
+     * @return A new board in the starting position.
+     */
+    public static SearchBoard initial() {
+        SearchBoard board = new SearchBoard();
+        board.put(BitBoard.index(3, 3), 0, DiscType.SIMPLE);
+        board.put(BitBoard.index(4, 4), 0, DiscType.SIMPLE);
+        board.put(BitBoard.index(3, 4), 1, DiscType.SIMPLE);
+        board.put(BitBoard.index(4, 3), 1, DiscType.SIMPLE);
+        board.setInventory(0, Player.initial_number_of_bombs, Player.initial_number_of_unflippedable);
+        board.setInventory(1, Player.initial_number_of_bombs, Player.initial_number_of_unflippedable);
+        return board;
+    }
+
+    /**
+     * Creates an independent copy of this board, without its undo history.
+     *
+     * @return The copy.
+     */
+    public SearchBoard copy() {
+        SearchBoard board = new SearchBoard();
+        board.discs[0] = discs[0];
+        board.discs[1] = discs[1];
+        board.bombs = bombs;
+        board.unflippables = unflippables;
+        board.bombsLeft[0] = bombsLeft[0];
+        board.bombsLeft[1] = bombsLeft[1];
+        board.unflippablesLeft[0] = unflippablesLeft[0];
+        board.unflippablesLeft[1] = unflippablesLeft[1];
+        board.side = side;
+        board.hash = hash;
+        return board;
+    }
+
+    // ---- Move encoding ----
+
+    /**
+     * Encodes a move.
+     *
+     * @param square The square of the new disc.
+     * @param type   The type of the new disc.
+     * @return The encoded move.
+     */
+    public static int move(int square, DiscType type) {
+        return square | (type.ordinal() << 6);
+    }
+
+    /**
+     * Gets the square of an encoded move.
+     *
+     * @param move The encoded move.
+     * @return The square index.
+     */
+    public static int square(int move) {
+        return move & 63;
+    }
+
+    /**
+     * Gets the disc type of an encoded move.
+     *
+     * @param move The encoded move.
+     * @return The disc type.
+     */
+    public static DiscType type(int move) {
+        return TYPES[move >>> 6];
+    }
+
+    /**
+     * Converts an encoded move into a game move for the given player.
+     *
+     * @param move  The encoded move.
+     * @param owner The player placing the disc.
+     * @return The game move.
+     */
+    public static Move toMove(int move, Player owner) {
+        return new Move(Position.of(square(move)), type(move).create(owner));
+    }
+
+    // ---- Setup ----
+
+    /**
+     * Places a disc without applying any rule.
+     *
+     * @param square The square of the disc.
+     * @param owner  0 for player 1, 1 for player 2.
+     * @param type   The type of the disc.
+     */
+    public void put(int square, int owner, DiscType type) {
+        accumulator = null; // Only moves are tracked
+        long bit = 1L << square;
+        discs[owner] |= bit;
+        hash ^= OWNER_KEYS[owner][square];
+        if (type == DiscType.BOMB) {
+            bombs |= bit;
+            hash ^= TYPE_KEYS[type.ordinal()][square];
+        } else if (type == DiscType.UNFLIPPABLE) {
+            unflippables |= bit;
+            hash ^= TYPE_KEYS[type.ordinal()][square];
+        }
+    }
+
+    /**
+     * Sets the remaining special discs of a player.
+     *
+     * @param player      0 for player 1, 1 for player 2.
+     * @param bombs       The remaining bombs.
+     * @param unflippable The remaining unflippable discs.
+     */
+    public void setInventory(int player, int bombs, int unflippable) {
+        accumulator = null; // Only moves are tracked
+        hash ^= BOMB_KEYS[player][bombsLeft[player]] ^ UNFLIPPABLE_KEYS[player][unflippablesLeft[player]];
+        bombsLeft[player] = bombs;
+        unflippablesLeft[player] = unflippable;
+        hash ^= BOMB_KEYS[player][bombs] ^ UNFLIPPABLE_KEYS[player][unflippable];
+    }
+
+    /**
+     * Sets the side to move.
+     *
+     * @param side 0 for player 1, 1 for player 2.
+     */
+    public void setSide(int side) {
+        if (this.side != side) {
+            hash ^= SIDE_KEY;
+            this.side = side;
+        }
+    }
+
+    /**
+     * Attaches network sums that every following move keeps up to date, computing them for the current position.
+     * Placing discs or changing inventories directly detaches them again.
+     *
+     * @param accumulator The sums to maintain.
+     */
+    public void attach(NnueAccumulator accumulator) {
+        this.accumulator = accumulator;
+        accumulatorPly = ply;
+        accumulator.refresh(this);
+    }
+
+    /**
+     * Gets the attached network sums.
+     *
+     * @return The sums, up to date for the current position, or null if none are attached.
+     */
+    public NnueAccumulator accumulator() {
+        return accumulator;
+    }
+
+    // ---- Queries ----
+
+    public int side() {
+        return side;
+    }
+
+    public long discs(int player) {
+        return discs[player];
+    }
+
+    public long bombs() {
+        return bombs;
+    }
+
+    public long unflippables() {
+        return unflippables;
+    }
+
+    public int bombsLeft(int player) {
+        return bombsLeft[player];
+    }
+
+    public int unflippablesLeft(int player) {
+        return unflippablesLeft[player];
+    }
+
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Gets the number of moves played on this board since it was set up.
+     *
+     * @return The current ply.
+     */
+    public int ply() {
+        return ply;
+    }
+
+    public long empty() {
+        return ~(discs[0] | discs[1]);
+    }
+
+    /**
+     * Calculates the discs that change owner when the side to move places a disc on a square,
+     * including bomb chains. Unflippable discs are part of the result but keep their owner.
+     *
+     * @param square The square of the new disc.
+     * @return The mask of the affected squares.
+     */
+    public long flips(int square) {
+        return BitBoard.flips(square, discs[side], discs[side ^ 1], bombs);
+    }
+
+    /**
+     * Calculates the squares where the given player could legally place a disc.
+     * A move is legal when it flips at least one disc that is not unflippable.
+     *
+     * @param player 0 for player 1, 1 for player 2.
+     * @return The mask of the legal squares.
+     */
+    public long legalSquares(int player) {
+        return BitBoard.legalSquares(discs[player], discs[player ^ 1], bombs, unflippables);
+    }
+
+    /**
+     * Calculates the squares where the side to move can legally place a disc.
+     *
+     * @return The mask of the legal squares.
+     */
+    public long legalSquares() {
+        return legalSquares(side);
+    }
+
+    /**
+     * Writes every legal move of the side to move into a buffer:
+     * a simple disc on every legal square, plus a bomb and an unflippable disc while they are available.
+     *
+     * @param buffer The buffer to fill, at least {@link #MAX_MOVES} long.
+     * @return The number of moves written.
+     */
+    public int generateMoves(int[] buffer) {
+        return generateMoves(legalSquares(), buffer);
+    }
+
+    /**
+     * Writes every legal move on the given squares into a buffer.
+     *
+     * @param squares The legal squares to expand.
+     * @param buffer  The buffer to fill.
+     * @return The number of moves written.
+     */
+    public int generateMoves(long squares, int[] buffer) {
+        int count = 0;
+        boolean withBomb = bombsLeft[side] > 0;
+        boolean withUnflippable = unflippablesLeft[side] > 0;
+        while (squares != 0) {
+            int square = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            buffer[count++] = move(square, DiscType.SIMPLE);
+            if (withUnflippable) {
+                buffer[count++] = move(square, DiscType.UNFLIPPABLE);
+            }
+            if (withBomb) {
+                buffer[count++] = move(square, DiscType.BOMB);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the side to move has to pass: it has no legal square, but its opponent has.
+     *
+     * @return True if the only move is {@link #PASS}.
+     */
+    public boolean mustPass() {
+        return legalSquares() == 0 && legalSquares(side ^ 1) != 0;
+    }
+
+    /**
+     * Checks whether the game is over: neither player has a legal square.
+     *
+     * @return True if the game has ended.
+     */
+    public boolean isGameOver() {
+        return legalSquares() == 0 && legalSquares(side ^ 1) == 0;
+    }
+
+    /**
+     * Gets the disc difference from the point of view of the side to move.
+     *
+     * @return Own discs minus opponent discs.
+     */
+    public int discDifference() {
+        return Long.bitCount(discs[side]) - Long.bitCount(discs[side ^ 1]);
+    }
+
+    // ---- Make / unmake ----
+
+    /**
+     * Plays a legal move for the side to move.
+     *
+     * @param move The encoded move, or {@link #PASS} when the side to move has no legal square.
+     */
+    public void play(int move) {
+        if (move == PASS) {
+            savedDiscs0[ply] = discs[0];
+            savedDiscs1[ply] = discs[1];
+            savedHash[ply] = hash;
+            savedMove[ply] = move;
+            if (accumulator != null) {
+                accumulator.pass(ply);
+            }
+            ply++;
+            side ^= 1;
+            hash ^= SIDE_KEY;
+            return;
+        }
+        int square = square(move);
+        DiscType type = type(move);
+        savedDiscs0[ply] = discs[0];
+        savedDiscs1[ply] = discs[1];
+        savedHash[ply] = hash;
+        savedMove[ply] = move;
+        ply++;
+
+        long flipped = flips(square) & ~unflippables;
+        long bit = 1L << square;
+        discs[side] |= flipped | bit;
+        discs[side ^ 1] &= ~flipped;
+        hash ^= OWNER_KEYS[side][square];
+        for (long rest = flipped; rest != 0; rest &= rest - 1) {
+            hash ^= FLIP_KEYS[Long.numberOfTrailingZeros(rest)];
+        }
+        if (type == DiscType.BOMB) {
+            bombs |= bit;
+            hash ^= TYPE_KEYS[type.ordinal()][square] ^ BOMB_KEYS[side][bombsLeft[side]];
+            bombsLeft[side]--;
+            hash ^= BOMB_KEYS[side][bombsLeft[side]];
+        } else if (type == DiscType.UNFLIPPABLE) {
+            unflippables |= bit;
+            hash ^= TYPE_KEYS[type.ordinal()][square] ^ UNFLIPPABLE_KEYS[side][unflippablesLeft[side]];
+            unflippablesLeft[side]--;
+            hash ^= UNFLIPPABLE_KEYS[side][unflippablesLeft[side]];
+        }
+        if (accumulator != null) {
+            accumulator.play(ply - 1, side, square, type, flipped, bombs,
+                    type == DiscType.BOMB ? bombsLeft[side] : unflippablesLeft[side]);
+        }
+        side ^= 1;
+        hash ^= SIDE_KEY;
+    }
+
+    /**
+     * Takes back the last move played with {@link #play(int)}.
+     */
+    public void undo() {
+        ply--;
+        int move = savedMove[ply];
+        side ^= 1;
+        hash = savedHash[ply];
+        if (move == PASS) {
+            keepAccumulator();
+            return;
+        }
+        long bit = 1L << square(move);
+        discs[0] = savedDiscs0[ply];
+        discs[1] = savedDiscs1[ply];
+        switch (type(move)) {
+            case BOMB:
+                bombs &= ~bit;
+                bombsLeft[side]++;
+                break;
+            case UNFLIPPABLE:
+                unflippables &= ~bit;
+                unflippablesLeft[side]++;
+                break;
+            default:
+                break;
+        }
+        keepAccumulator();
+    }
+
+    /**
+     * Recomputes the attached network sums after taking back a move played before they were attached.
+     */
+    private void keepAccumulator() {
+        if (accumulator != null && ply < accumulatorPly) {
+            accumulatorPly = ply;
+            accumulator.refresh(this);
+        }
+    }
+}
@@ -0,0 +1,536 @@
+/**
+ * An iterative-deepening alpha-beta (negamax) search over a SearchBoard,
+ * using a transposition table, a move ordering and an evaluation function.
+ * The node search and the driver of each iteration are selected with {@link Algorithm}
+ * and {@link #setAspirationWindow(int)}; Multi-ProbCut forward pruning is enabled with
+ * {@link #setProbCut(ProbCut)}, and {@link #setSpecialDiscPolicy(SpecialDiscPolicy)} limits
+ * which bomb and unflippable moves are searched. Near the end of the game,
+ * {@link #setStabilityCutoff(int)} prunes nodes whose result is already decided by stable discs.
+ * An engine is not thread safe, except that {@link #stop()} may be called from any thread;
+ * the transposition table may be shared between engines.
+ */
+public class SearchEngine {
+    public static final int INFINITY = 1_000_000; // Bigger than any score
+    public static final int WIN = 100_000; // Base score of a won game; the disc difference is added
+    private static final int NO_CUT = Integer.MIN_VALUE; // Returned by the cut tests when the node must be searched
+    private static final int CLOCK_INTERVAL = 1023; // The clock is read every 1024 nodes
+
+    /**
+     * The search algorithms an engine can use.
+     */
+    public enum Algorithm {
+        /** Plain fail-soft alpha-beta with a full window at every node. */
+        ALPHA_BETA,
+        /** Principal variation search (NegaScout): later moves are first tried with a null window. */
+        PVS,
+        /** MTD(f): every iteration is a series of null-window searches converging on the score. */
+        MTDF
+    }
+
+    protected final TranspositionTable table;
+    protected final MoveOrdering ordering;
+    protected final Evaluator evaluator;
+    private final int[][] moveLists = new int[SearchBoard.MAX_PLY][SearchBoard.MAX_MOVES]; // Move buffer per ply
+    protected long nodes;
+    private int rootBest = SearchBoard.NO_MOVE; // Best move found by the last root search
+    private Algorithm algorithm = Algorithm.ALPHA_BETA;
+    private int aspirationWindow; // Half-width of the aspiration window, 0 for a full window
+    private final long[] depthNanos = new long[SearchBoard.MAX_PLY]; // Time to complete each iteration
+    private final long[] depthNodes = new long[SearchBoard.MAX_PLY]; // Nodes to complete each iteration
+    private final int[] depthScores = new int[SearchBoard.MAX_PLY]; // Root score of each iteration
+    private ProbCut probCut; // Forward pruning parameters, or null
+    private SpecialDiscPolicy specialDiscPolicy; // Selects the special-disc moves to search, or null for all
+    private int stabilityEmpties; // Stability cutoffs are tried with at most this many empty squares
+    private EvaluationStore store; // Persistent results consulted before and updated after each search, or null
+    private long deadline; // System.nanoTime() at which the running iteration is abandoned, 0 for none
+    private boolean aborted; // Set when the deadline passed; the running iteration's scores are invalid
+    private volatile boolean stopRequested; // Set by another thread to end the running search early
+
+    /**
+     * Constructs a search engine.
+     *
+     * @param table     The transposition table to use.
+     * @param ordering  The move ordering to use.
+     * @param evaluator The evaluation function used at the leaves.
+     */
+    public SearchEngine(TranspositionTable table, MoveOrdering ordering, Evaluator evaluator) {
+        this.table = table;
+        this.ordering = ordering;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Searches a position with iterative deepening up to a fixed depth.
+     *
+     * @param board    The position to search; it is restored before returning.
+     * @param maxDepth The depth of the last iteration.
+     * @return The best move and its score.
+     */
+    public SearchResult search(SearchBoard board, int maxDepth) {
+        return search(board, maxDepth, 0);
+    }
+
+    /**
+     * Searches a position with iterative deepening until a depth or a time limit is reached.
+     * The first iteration always completes; a later iteration still running at the time limit
+     * is abandoned, and the result of the last completed one is returned.
+     *
+     * @param board          The position to search; it is restored before returning.
+     * @param maxDepth       The depth of the last iteration.
+     * @param timeLimitNanos The time limit in nanoseconds, or 0 for none.
+     * @return The best move and its score.
+     */
+    public SearchResult search(SearchBoard board, int maxDepth, long timeLimitNanos) {
+        return search(board, maxDepth, timeLimitNanos > 0 ? TimeBudget.fixed(timeLimitNanos) : null);
+    }
+
+    /**
+     * Searches a position with iterative deepening until a depth is reached or a time budget is used.
+     * The first iteration always completes; the budget decides whether each further iteration starts,
+     * and an iteration still running at its hard limit is abandoned.
+     *
+     * @param board    The position to search; it is restored before returning.
+     * @param maxDepth The depth of the last iteration.
+     * @param budget   The time budget of this search, or null for none.
+     * @return The best move and its score.
+     */
+    public SearchResult search(SearchBoard board, int maxDepth, TimeBudget budget) {
+        GameSnapshot position = store == null ? null : GameSnapshot.of(board);
+        if (position != null && budget == null) {
+            SearchResult stored = store.probe(position, maxDepth);
+            if (stored != null) {
+                return stored;
+            }
+        }
+        long start = System.nanoTime();
+        nodes = 0;
+        rootBest = SearchBoard.NO_MOVE; // Stays unset when the game is already over
+        deadline = 0;
+        aborted = false;
+        stopRequested = false;
+        ordering.newSearch();
+        int bestMove = SearchBoard.NO_MOVE;
+        int score = 0;
+        int completed = 0;
+        for (int depth = 1; depth <= Math.min(maxDepth, SearchBoard.MAX_PLY - 1); depth++) {
+            int iterationScore = searchIteration(board, depth, score);
+            if (aborted) {
+                break;
+            }
+            score = iterationScore;
+            bestMove = rootBest;
+            completed = depth;
+            depthNanos[depth] = System.nanoTime() - start;
+            depthNodes[depth] = nodes;
+            depthScores[depth] = score;
+            if (budget != null) {
+                deadline = start + budget.hardNanos(); // Armed once a move is known
+                if (!budget.startNextIteration(score, System.nanoTime() - start)) {
+                    break;
+                }
+            }
+        }
+        deadline = 0;
+        SearchResult result = new SearchResult(bestMove, score, completed, nodes, System.nanoTime() - start);
+        if (position != null && completed > 0) {
+            store.store(position, result);
+        }
+        return result;
+    }
+
+    /**
+     * Ends the running search early, as if its time had run out: the running iteration is abandoned
+     * and the result of the last completed one is returned, without a move if none completed.
+     * A request made while no search runs is dropped when the next search starts, so a caller
+     * waiting for a search to return repeats the request until it did.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Forgets what earlier searches learned: empties the transposition table, which may be shared
+     * with other engines, and resets the move-ordering statistics.
+     */
+    public void clear() {
+        table.clear();
+        ordering.clear();
+    }
+
+    /**
+     * Gets the move the transposition table suggests for a position, such as the reply a previous
+     * search expected from the opponent.
+     *
+     * @param board The position.
+     * @return The stored best move if it is legal in the position, or {@link SearchBoard#NO_MOVE}.
+     */
+    public int expectedMove(SearchBoard board) {
+        long entry = table.probe(board.hash());
+        if (entry == TranspositionTable.MISS) {
+            return SearchBoard.NO_MOVE;
+        }
+        int move = TranspositionTable.move(entry);
+        int[] moves = moveLists[0];
+        int count = board.generateMoves(moves);
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return move;
+            }
+        }
+        return SearchBoard.NO_MOVE; // Another position with the same table index, or no move stored
+    }
+
+    /**
+     * Checks the clock every few nodes and flags the search as aborted once the deadline passed
+     * or another thread asked the search to stop.
+     *
+     * @return True if the running iteration must be abandoned.
+     */
+    private boolean outOfTime() {
+        if (!aborted && (nodes & CLOCK_INTERVAL) == 0
+                && (stopRequested || deadline != 0 && System.nanoTime() - deadline >= 0)) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    /**
+     * Runs one iteration of iterative deepening with the selected driver.
+     *
+     * @param board    The root position.
+     * @param depth    The depth of this iteration.
+     * @param previous The score of the previous iteration, used as a guess.
+     * @return The score of the root position.
+     */
+    protected int searchIteration(SearchBoard board, int depth, int previous) {
+        if (algorithm == Algorithm.MTDF) {
+            return mtdf(board, depth, depth == 1 ? 0 : previous);
+        }
+        if (aspirationWindow <= 0 || depth == 1) {
+            return alphaBeta(board, depth, -INFINITY, INFINITY, 0);
+        }
+        return aspiration(board, depth, previous);
+    }
+
+    /**
+     * Searches the root with a narrow window around the previous score, widening it
+     * on the side that failed until the score falls inside.
+     */
+    private int aspiration(SearchBoard board, int depth, int previous) {
+        int delta = aspirationWindow;
+        int alpha = previous - delta;
+        int beta = previous + delta;
+        while (true) {
+            int score = alphaBeta(board, depth, alpha, beta, 0);
+            if (aborted) {
+                return score;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 4;
+        }
+    }
+
+    /**
+     * Finds the root score with null-window searches only (MTD(f)).
+     * The best move is taken from the last search that failed high, since that search proved it.
+     */
+    private int mtdf(SearchBoard board, int depth, int guess) {
+        int score = guess;
+        int lower = -INFINITY;
+        int upper = INFINITY;
+        int proven = SearchBoard.NO_MOVE;
+        while (lower < upper) {
+            int beta = score == lower ? score + 1 : score;
+            score = alphaBeta(board, depth, beta - 1, beta, 0);
+            if (aborted) {
+                return score;
+            }
+            if (score < beta) {
+                upper = score;
+            } else {
+                lower = score;
+                proven = rootBest;
+            }
+        }
+        rootBest = proven;
+        return score;
+    }
+
+    /**
+     * Searches a node with alpha-beta pruning.
+     *
+     * @param board The position.
+     * @param depth The remaining depth.
+     * @param alpha The lower bound of the window.
+     * @param beta  The upper bound of the window.
+     * @param ply   The distance from the root.
+     * @return The score of the position for the side to move.
+     */
+    protected int alphaBeta(SearchBoard board, int depth, int alpha, int beta, int ply) {
+        nodes++;
+        ordering.recordNode();
+        if (outOfTime()) {
+            return 0;
+        }
+        long legal = board.legalSquares();
+        if (legal == 0) {
+            if (board.legalSquares(board.side() ^ 1) == 0) {
+                return terminalScore(board);
+            }
+            // The side to move passes; a pass costs no depth, since two passes in a row end the game
+            board.play(SearchBoard.PASS);
+            int score = -alphaBeta(board, depth, -beta, -alpha, ply + 1);
+            board.undo();
+            if (ply == 0) {
+                rootBest = SearchBoard.PASS;
+            }
+            return score;
+        }
+        if (depth <= 0) {
+            return evaluator.evaluate(board);
+        }
+        if (ply > 0 && Long.bitCount(board.empty()) <= stabilityEmpties) {
+            int cut = stabilityCut(board, alpha, beta);
+            if (cut != NO_CUT) {
+                return cut;
+            }
+        }
+
+        int alphaOrig = alpha;
+        int hashMove = SearchBoard.NO_MOVE;
+        long entry = table.probe(board.hash());
+        if (entry != TranspositionTable.MISS) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int stored = TranspositionTable.score(entry);
+                int flag = TranspositionTable.flag(entry);
+                if (flag == TranspositionTable.EXACT
+                        || (flag == TranspositionTable.LOWER && stored >= beta)
+                        || (flag == TranspositionTable.UPPER && stored <= alpha)) {
+                    return stored;
+                }
+            }
+        }
+
+        if (probCut != null && ply > 0) {
+            int cut = probCut(board, depth, alpha, beta, ply);
+            if (cut != NO_CUT) {
+                return cut;
+            }
+        }
+
+        int[] moves = moveLists[ply];
+        int count = specialDiscPolicy == null ? board.generateMoves(legal, moves)
+                : specialDiscPolicy.generateMoves(board, legal, moves);
+        ordering.order(board, moves, count, ply, hashMove, depth);
+
+        int best = -INFINITY;
+        int bestMove = moves[0];
+        for (int i = 0; i < count; i++) {
+            board.play(moves[i]);
+            int score;
+            if (algorithm == Algorithm.PVS && i > 0) {
+                // Prove the move is not better than the best so far, re-search only if it is
+                score = -alphaBeta(board, depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -alphaBeta(board, depth - 1, -beta, -alpha, ply + 1);
+                }
+            } else {
+                score = -alphaBeta(board, depth - 1, -beta, -alpha, ply + 1);
+            }
+            board.undo();
+            if (aborted) {
+                return 0; // Nothing of this node may reach the table
+            }
+            if (score > best) {
+                best = score;
+                bestMove = moves[i];
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        ordering.recordCutoff(moves[i], i, ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int flag = best <= alphaOrig ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(board.hash(), depth, best, flag, bestMove);
+        if (ply == 0) {
+            rootBest = bestMove;
+        }
+        return best;
+    }
+
+    /**
+     * Tries to cut a node with shallow null-window searches (Multi-ProbCut).
+     * Each fitted pair for the node's stage and depth predicts the deep score from a shallow one;
+     * the node fails high (or low) when the prediction is far enough past beta (or alpha).
+     *
+     * @return beta or alpha if the node is cut, NO_CUT otherwise.
+     */
+    private int probCut(SearchBoard board, int depth, int alpha, int beta, int ply) {
+        int stage = ProbCut.stage(board);
+        double threshold = probCut.threshold(stage);
+        for (ProbCut.Pair pair : probCut.pairs(stage, depth)) {
+            double margin = threshold * pair.sigma;
+            if (beta < WIN / 2) {
+                int bound = (int) Math.ceil((beta + margin - pair.b) / pair.a);
+                if (alphaBeta(board, pair.shallow, bound - 1, bound, ply) >= bound) {
+                    return beta;
+                }
+            }
+            if (alpha > -WIN / 2) {
+                int bound = (int) Math.floor((alpha - margin - pair.b) / pair.a);
+                if (alphaBeta(board, pair.shallow, bound, bound + 1, ply) <= bound) {
+                    return alpha;
+                }
+            }
+        }
+        return NO_CUT;
+    }
+
+    /**
+     * Cuts a node whose game result is already decided by stable discs.
+     * The final disc difference lies between 2 * own stable - 64 and 64 - 2 * opponent stable,
+     * so a node is a proven loss (or win) when that range does not cross zero.
+     *
+     * @return A bound outside the window, or NO_CUT.
+     */
+    private int stabilityCut(SearchBoard board, int alpha, int beta) {
+        int side = board.side();
+        int maxDifference = BitBoard.SQUARES - 2 * Stability.lowerBound(board, side ^ 1);
+        if (maxDifference < 0 && -WIN + maxDifference <= alpha) {
+            return -WIN + maxDifference;
+        }
+        int minDifference = 2 * Stability.lowerBound(board, side) - BitBoard.SQUARES;
+        if (minDifference > 0 && WIN + minDifference >= beta) {
+            return WIN + minDifference;
+        }
+        return NO_CUT;
+    }
+
+    /**
+     * Scores a finished game: a win is worth more than any evaluation.
+     *
+     * @param board The finished position.
+     * @return The score for the side to move.
+     */
+    protected int terminalScore(SearchBoard board) {
+        int difference = board.discDifference();
+        if (difference > 0) {
+            return WIN + difference;
+        }
+        if (difference < 0) {
+            return -WIN + difference;
+        }
+        return 0;
+    }
+
+    /**
+     * Sets a persistent store of results: a search to a fixed depth first looks the root position up
+     * and returns a stored result that is deep enough, and every completed search is stored.
+     * Time-limited searches only store their results, since any stored depth could be beaten.
+     *
+     * @param store The store, or null to always search.
+     */
+    public void setStore(EvaluationStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Selects the search algorithm.
+     *
+     * @param algorithm The algorithm to use from the next search on.
+     */
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Enables aspiration windows for ALPHA_BETA and PVS: each iteration first searches
+     * a window of the given half-width around the previous iteration's score.
+     *
+     * @param halfWidth The half-width of the window, or 0 to always search with a full window.
+     */
+    public void setAspirationWindow(int halfWidth) {
+        this.aspirationWindow = halfWidth;
+    }
+
+    /**
+     * Gets the time the last search took to complete an iteration.
+     *
+     * @param depth The depth of the iteration.
+     * @return The time since the search started, in nanoseconds.
+     */
+    public long timeToDepth(int depth) {
+        return depthNanos[depth];
+    }
+
+    /**
+     * Gets the number of nodes the last search needed to complete an iteration.
+     *
+     * @param depth The depth of the iteration.
+     * @return The node count since the search started.
+     */
+    public long nodesToDepth(int depth) {
+        return depthNodes[depth];
+    }
+
+    /**
+     * Enables Multi-ProbCut forward pruning.
+     *
+     * @param probCut The fitted parameters, or null to search every node fully.
+     */
+    public void setProbCut(ProbCut probCut) {
+        this.probCut = probCut;
+    }
+
+    /**
+     * Limits the special-disc moves searched at every node.
+     *
+     * @param policy The policy deciding which bomb and unflippable moves to expand, or null to expand all.
+     */
+    public void setSpecialDiscPolicy(SpecialDiscPolicy policy) {
+        this.specialDiscPolicy = policy;
+    }
+
+    /**
+     * Enables stability cutoffs in the endgame.
+     *
+     * @param maxEmpties The number of empty squares from which on nodes are checked, or 0 to disable.
+     */
+    public void setStabilityCutoff(int maxEmpties) {
+        this.stabilityEmpties = maxEmpties;
+    }
+
+    /**
+     * Gets the root score of an iteration of the last search.
+     *
+     * @param depth The depth of the iteration.
+     * @return The score found at that depth.
+     */
+    public int scoreAtDepth(int depth) {
+        return depthScores[depth];
+    }
+
+    public MoveOrdering getOrdering() {
+        return ordering;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * The outcome of a search: the best move found and how it was found.
+ */
+public class SearchResult {
+    private final int bestMove; // The best move, encoded as in SearchBoard
+    private final int score; // The score of the best move for the side to move
+    private final int depth; // The deepest completed iteration
+    private final long nodes; // The number of nodes searched
+    private final long nanos; // The time spent searching
+
+    /**
+     * Constructs a search result.
+     *
+     * @param bestMove The best move, or SearchBoard.NO_MOVE.
+     * @param score    The score of the best move.
+     * @param depth    The deepest completed iteration.
+     * @param nodes    The number of nodes searched.
+     * @param nanos    The time spent, in nanoseconds.
+     */
+    public SearchResult(int bestMove, int score, int depth, long nodes, long nanos) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    public int bestMove() {
+        return bestMove;
+    }
+
+    public int score() {
+        return score;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long nodes() {
+        return nodes;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + score + " nodes " + nodes + " in " + nanos / 1_000_000 + " ms";
+    }
+}
@@ -0,0 +1,497 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Headless tool that generates training data by letting AI players play each other.
+ * Worker threads play games on {@link HeadlessGame}s, one game per thread at a time. Each game opens with a
+ * few uniformly random plies and continues with a few plies sampled by a softmax over the square-weight
+ * evaluation of each move, so that games do not repeat; after that the configured AIs decide.
+ * Every position where the game is not over is labeled with the score and best move of a search.
+ *
+ * Finished games go through a bounded queue to a single writer thread, which appends them to
+ * gzip-compressed shards of a fixed number of games. A shard is written under a temporary name and
+ * renamed when complete, so a killed run leaves only complete shards behind. Running the same command
+ * again deletes the incomplete shard and plays just the games no complete shard holds. Each game draws
+ * from a random stream derived from the seed and its number, and the AIs forget their searches before
+ * each game, so the moves of a game do not depend on which worker plays it or what it played before.
+ * The labels do not either: each worker labels with a table of its own, emptied before each game.
+ * A run therefore writes the same games and labels whatever the thread count, and a resumed run the same
+ * as an uninterrupted one. The exception is an evaluation store named by the
+ * {@value EvaluationStore#FILE_PROPERTY} property, which the players' searches share across games and runs. Memory stays fixed: the queue holds at most a few games,
+ * and each worker owns its players.
+ *
+ * A shard starts with the magic "BOMBSELF" and a version int, followed by games until the end of the file.
+ * A game is: game number (int), positions (short), final disc difference for player 1 (byte), then for
+ * each position: discs of player 1, discs of player 2, bombs, unflippables (longs), side to move (byte),
+ * inventories (byte, two bits each: bombs and unflippables of player 1, then of player 2),
+ * search score for the side to move (short) and best move in the SearchBoard encoding (short).
+ *
+ * Run it with: java SelfPlay output-dir games [-players A,B] [-threads N] [-depth N] [-random-plies N]
+ * [-temperature T] [-temperature-plies N] [-shard-games N] [-queue N] [-seed S]
+ */
+public class SelfPlay {
+    public static final String MAGIC = "BOMBSELF";
+    public static final int VERSION = 1;
+    private static final String SHARD_PREFIX = "shard-";
+    public static final String SHARD_SUFFIX = ".bin.gz";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int TABLE_SIZE_LOG2 = 20; // 1M entries in each worker's labeling table
+    private static final long GAME_SEED_GAMMA = 0x9E3779B97F4A7C15L; // Spreads game numbers over the seed space
+    private static final byte[] END = new byte[0]; // Tells the writer that all workers are done
+
+    private final String[] playerTypes; // The AI of each side in even games; odd games swap them
+    private final int depth; // Depth of the labeling search
+    private final int randomPlies;
+    private final double temperature;
+    private final int temperaturePlies;
+    private final long seed;
+    private final WeightedSquareEvaluator sampler = new WeightedSquareEvaluator(); // Scores temperature moves
+
+    /**
+     * Constructs a generator.
+     *
+     * @param playerTypes      The registered names of the two AIs.
+     * @param depth            The depth of the search that labels each position.
+     * @param randomPlies      The number of opening plies chosen uniformly at random.
+     * @param temperature      The softmax temperature, in evaluation points, of the plies after those.
+     * @param temperaturePlies The number of plies chosen by temperature.
+     * @param seed             The seed all random choices derive from.
+     */
+    public SelfPlay(String[] playerTypes, int depth, int randomPlies, double temperature, int temperaturePlies, long seed) {
+        this.playerTypes = playerTypes;
+        this.depth = depth;
+        this.randomPlies = randomPlies;
+        this.temperature = temperature;
+        this.temperaturePlies = temperaturePlies;
+        this.seed = seed;
+    }
+
+    /**
+     * Plays every game that the complete shards in a directory do not hold yet, and writes them as new shards.
+     *
+     * @param directory  The output directory, created if needed.
+     * @param games      The total number of games of the run.
+     * @param threads    The number of worker threads.
+     * @param shardGames The number of games per shard.
+     * @param queueSize  The number of finished games that may wait for the writer.
+     * @return The number of games played by this call.
+     * @throws IOException          If reading or writing a shard fails.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public int run(Path directory, int games, int threads, int shardGames, int queueSize)
+            throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        BitSet done = new BitSet(games);
+        int nextShard = scan(directory, done);
+        int[] missing = new int[games - done.get(0, games).cardinality()];
+        for (int game = done.nextClearBit(0), i = 0; game < games; game = done.nextClearBit(game + 1)) {
+            missing[i++] = game;
+        }
+
+        BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(queueSize);
+        AtomicInteger cursor = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    Map<String, AIPlayer> players = new HashMap<>(); // Reused across games, by type and color
+                    SearchEngine engine = AlphaBetaAI.newEngine(new TranspositionTable(TABLE_SIZE_LOG2));
+                    engine.setStore(null); // Its results would depend on what other runs stored
+                    int index;
+                    while ((index = cursor.getAndIncrement()) < missing.length && failure.get() == null) {
+                        queue.put(play(missing[index], players, engine));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "SelfPlay worker " + i);
+            workers[i].setDaemon(true); // A failed writer must not leave them blocked on the queue forever
+            workers[i].start();
+        }
+        Thread finisher = new Thread(() -> {
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "SelfPlay finisher");
+        finisher.setDaemon(true);
+        finisher.start();
+
+        int written = write(directory, queue, nextShard, shardGames); // The calling thread is the writer
+        finisher.join();
+        if (failure.get() != null) {
+            throw new IllegalStateException("A worker failed", failure.get());
+        }
+        return written;
+    }
+
+    /**
+     * Takes games from the queue and writes them to shards until the end marker arrives.
+     */
+    private static int write(Path directory, BlockingQueue<byte[]> queue, int nextShard, int shardGames)
+            throws IOException, InterruptedException {
+        int written = 0;
+        int inShard = 0;
+        Path temp = null;
+        DataOutputStream output = null;
+        while (true) {
+            byte[] game = queue.take();
+            if (game == END) {
+                break;
+            }
+            if (output == null) {
+                temp = directory.resolve(shardName(nextShard) + TEMP_SUFFIX);
+                output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))));
+                output.write(MAGIC.getBytes(StandardCharsets.US_ASCII));
+                output.writeInt(VERSION);
+            }
+            output.write(game);
+            written++;
+            if (++inShard == shardGames) {
+                finishShard(output, temp, directory.resolve(shardName(nextShard++)));
+                output = null;
+                inShard = 0;
+            }
+        }
+        if (output != null) {
+            finishShard(output, temp, directory.resolve(shardName(nextShard)));
+        }
+        return written;
+    }
+
+    private static void finishShard(OutputStream output, Path temp, Path shard) throws IOException {
+        output.close();
+        Files.move(temp, shard, StandardCopyOption.ATOMIC_MOVE);
+        System.out.println("Wrote " + shard);
+    }
+
+    private static String shardName(int number) {
+        return String.format("%s%05d%s", SHARD_PREFIX, number, SHARD_SUFFIX);
+    }
+
+    /**
+     * Deletes the shards a killed run left incomplete and collects the games of the complete ones.
+     *
+     * @return The number of the next shard to write.
+     */
+    private static int scan(Path directory, BitSet done) throws IOException {
+        int nextShard = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SHARD_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.delete(file);
+                } else if (name.endsWith(SHARD_SUFFIX)) {
+                    int number = Integer.parseInt(name.substring(SHARD_PREFIX.length(), name.length() - SHARD_SUFFIX.length()));
+                    nextShard = Math.max(nextShard, number + 1);
+                    read(file, (game, positions, scores, bestMoves) -> done.set(game.number));
+                }
+            }
+        }
+        return nextShard;
+    }
+
+    /**
+     * Plays one game and encodes it.
+     */
+    private byte[] play(int number, Map<String, AIPlayer> players, SearchEngine engine) {
+        SplittableRandom random = new SplittableRandom(mix(seed + number * GAME_SEED_GAMMA));
+        boolean swapped = number % 2 == 1; // The AIs take turns at playing first
+        AIPlayer player1 = player(players, playerTypes[swapped ? 1 : 0], true);
+        AIPlayer player2 = player(players, playerTypes[swapped ? 0 : 1], false);
+        for (AIPlayer player : new AIPlayer[]{player1, player2}) {
+            if (player instanceof RandomAI) {
+                ((RandomAI) player).setRandom(random.split()); // Replays with the game after a resume
+            } else if (player instanceof AlphaBetaAI) {
+                ((AlphaBetaAI) player).clearSearchMemory(); // Nothing carries over from the worker's earlier games
+            }
+        }
+        HeadlessGame game = new HeadlessGame(player1, player2);
+        engine.clear(); // The labels of a game depend on nothing but the game
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream positions = new DataOutputStream(bytes);
+        int[] moves = new int[SearchBoard.MAX_MOVES];
+        int count = 0;
+        try {
+            for (int ply = 0; !game.isGameFinished(); ply++) {
+                GameSnapshot position = game.snapshot();
+                SearchResult label = engine.search(position.toSearchBoard(), depth);
+                writePosition(positions, position, label);
+                count++;
+                if (ply < randomPlies + temperaturePlies) {
+                    SearchBoard board = position.toSearchBoard();
+                    game.play(ply < randomPlies ? randomMove(board, random) : sampleMove(board, moves, random));
+                } else {
+                    AIPlayer current = game.isFirstPlayerTurn() ? player1 : player2;
+                    Move move = current.makeMove(game);
+                    if (!game.locate_disc(move.position(), move.disc())) {
+                        throw new IllegalStateException(current.getClass().getSimpleName() + " played an illegal move");
+                    }
+                }
+            }
+            GameSnapshot last = game.snapshot();
+            ByteArrayOutputStream record = new ByteArrayOutputStream(bytes.size() + 7);
+            DataOutputStream output = new DataOutputStream(record);
+            output.writeInt(number);
+            output.writeShort(count);
+            output.writeByte(Long.bitCount(last.discs(0)) - Long.bitCount(last.discs(1)));
+            bytes.writeTo(output);
+            return record.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Byte arrays do not fail
+        }
+    }
+
+    private static AIPlayer player(Map<String, AIPlayer> players, String type, boolean isPlayerOne) {
+        return players.computeIfAbsent(type + (isPlayerOne ? "/1" : "/2"), key -> {
+            AIPlayer player = AIPlayer.createAIPlayer(type, isPlayerOne);
+            if (player instanceof AlphaBetaAI) {
+                ((AlphaBetaAI) player).setPondering(false); // Its thread would compete with the other workers
+            }
+            return player;
+        });
+    }
+
+    /**
+     * Picks a legal square uniformly at random and plays a simple disc there,
+     * so that the special discs are left for the AIs to place.
+     */
+    private static int randomMove(SearchBoard board, SplittableRandom random) {
+        long squares = board.legalSquares();
+        for (int skip = random.nextInt(Long.bitCount(squares)); skip > 0; skip--) {
+            squares &= squares - 1;
+        }
+        return SearchBoard.move(Long.numberOfTrailingZeros(squares), DiscType.SIMPLE);
+    }
+
+    /**
+     * Samples a move, special discs included, with probabilities following a softmax of its evaluation.
+     */
+    private int sampleMove(SearchBoard board, int[] moves, SplittableRandom random) {
+        int count = board.generateMoves(moves);
+        double[] weights = new double[count];
+        int best = Integer.MIN_VALUE;
+        int[] scores = new int[count];
+        for (int i = 0; i < count; i++) {
+            board.play(moves[i]);
+            scores[i] = -sampler.evaluate(board);
+            board.undo();
+            best = Math.max(best, scores[i]);
+        }
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            weights[i] = Math.exp((scores[i] - best) / temperature); // Relative to the best, so nothing overflows
+            total += weights[i];
+        }
+        double point = random.nextDouble() * total;
+        for (int i = 0; i < count - 1; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return moves[i];
+            }
+        }
+        return moves[count - 1];
+    }
+
+    private static void writePosition(DataOutputStream output, GameSnapshot position, SearchResult label) throws IOException {
+        output.writeLong(position.discs(0));
+        output.writeLong(position.discs(1));
+        output.writeLong(position.bombs());
+        output.writeLong(position.unflippables());
+        output.writeByte(position.side());
+        output.writeByte(position.bombsLeft(0) << 6 | position.unflippablesLeft(0) << 4
+                | position.bombsLeft(1) << 2 | position.unflippablesLeft(1));
+        output.writeShort(Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, label.score())));
+        output.writeShort(label.bestMove());
+    }
+
+    /**
+     * Scrambles the bits of a number, so that close numbers seed unrelated random streams.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The header of a game read back from a shard.
+     */
+    public static final class GameHeader {
+        public final int number; // Number of the game in its run
+        public final int result; // Final disc difference for player 1
+
+        GameHeader(int number, int result) {
+            this.number = number;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Receives the games of a shard.
+     */
+    public interface GameVisitor {
+        /**
+         * Called once per game.
+         *
+         * @param game      The game number and result.
+         * @param positions The positions of the game, in order.
+         * @param scores    The search score of each position, for its side to move.
+         * @param bestMoves The best move the search found in each position, in the SearchBoard encoding.
+         */
+        void visit(GameHeader game, GameSnapshot[] positions, int[] scores, int[] bestMoves);
+    }
+
+    /**
+     * Reads every game of a shard, with the search labels of its positions.
+     *
+     * @param shard   The shard file.
+     * @param visitor Receives the games.
+     * @return The number of games read.
+     * @throws IOException If the file cannot be read or is not a shard.
+     */
+    public static int read(Path shard, GameVisitor visitor) throws IOException {
+        int games = 0;
+        try (InputStream file = Files.newInputStream(shard);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file)))) {
+            byte[] magic = new byte[MAGIC.length()];
+            input.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC.getBytes(StandardCharsets.US_ASCII)) || input.readInt() != VERSION) {
+                throw new IOException("Not a self-play shard: " + shard);
+            }
+            while (true) {
+                int number;
+                try {
+                    number = input.readInt();
+                } catch (EOFException e) {
+                    return games;
+                }
+                GameSnapshot[] positions = new GameSnapshot[input.readShort()];
+                int[] scores = new int[positions.length];
+                int[] bestMoves = new int[positions.length];
+                int result = input.readByte();
+                for (int i = 0; i < positions.length; i++) {
+                    SearchBoard board = new SearchBoard();
+                    long discs0 = input.readLong();
+                    long discs1 = input.readLong();
+                    long bombs = input.readLong();
+                    long unflippables = input.readLong();
+                    for (int owner = 0; owner < 2; owner++) {
+                        for (long rest = owner == 0 ? discs0 : discs1; rest != 0; rest &= rest - 1) {
+                            long bit = rest & -rest;
+                            board.put(Long.numberOfTrailingZeros(rest), owner, (bombs & bit) != 0 ? DiscType.BOMB
+                                    : (unflippables & bit) != 0 ? DiscType.UNFLIPPABLE : DiscType.SIMPLE);
+                        }
+                    }
+                    board.setSide(input.readByte());
+                    int inventories = input.readUnsignedByte();
+                    board.setInventory(0, inventories >>> 6, inventories >>> 4 & 3);
+                    board.setInventory(1, inventories >>> 2 & 3, inventories & 3);
+                    scores[i] = input.readShort();
+                    bestMoves[i] = input.readShort();
+                    positions[i] = GameSnapshot.of(board);
+                }
+                visitor.visit(new GameHeader(number, result), positions, scores, bestMoves);
+                games++;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("Usage: java SelfPlay output-dir games [-players A,B] [-threads N] [-depth N] [-random-plies N]"
+                    + " [-temperature T] [-temperature-plies N] [-shard-games N] [-queue N] [-seed S]");
+            return;
+        }
+        String[] players = {"AlphaBetaAI", "AlphaBetaAI"};
+        int threads = Runtime.getRuntime().availableProcessors();
+        int depth = 4;
+        int randomPlies = 4;
+        double temperature = 20;
+        int temperaturePlies = 8;
+        int shardGames = 1000;
+        int queueSize = 0; // Two games per worker unless given
+        long seed = 1;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-players":
+                    players = args[i + 1].split(",");
+                    if (players.length != 2) {
+                        throw new IllegalArgumentException("Expected two AI types: " + args[i + 1]);
+                    }
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-depth":
+                    depth = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-random-plies":
+                    randomPlies = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-temperature":
+                    temperature = Double.parseDouble(args[i + 1]);
+                    break;
+                case "-temperature-plies":
+                    temperaturePlies = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-shard-games":
+                    shardGames = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-queue":
+                    queueSize = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        AIPlayer.registerAllAIPlayers();
+        SelfPlay selfPlay = new SelfPlay(players, depth, randomPlies, temperature, temperaturePlies, seed);
+        long start = System.nanoTime();
+        int games = selfPlay.run(Paths.get(args[0]), Integer.parseInt(args[1]), threads, shardGames,
+                queueSize > 0 ? queueSize : 2 * threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Played %d games with %d threads in %.1f s (%.1f games/s)%n", games, threads, seconds, games / seconds);
+    }
+}
@@ -14,6 +14,6 @@ this.owner=player;
 
     @Override
     public String getType() {
-        return "⬤";
+        return DiscType.SIMPLE.symbol();
     }
 }
@@ -0,0 +1,167 @@
+/**
+ * Decides which special-disc moves a search expands.
+ * Expanding a simple, an unflippable and a bomb disc on every square triples the branching factor,
+ * so this layer first rates every legal square with a cheap static estimate for each special type,
+ * and only adds the special variant for the best few squares whose estimate is worth the disc spent.
+ *
+ * The estimates look at the position after a simple disc is placed on the square:
+ * an unflippable disc gains as much as the disc is exposed, counted as the lines through the square
+ * along which the opponent could still flip it; a bomb is rated by its neighborhood, since a bomb
+ * taken by the opponent explodes into the placer's discs around it, and one taken back explodes
+ * into the opponent's.
+ */
+public class SpecialDiscPolicy {
+    private static final int DEFAULT_WIDTH = 2; // Squares expanded per special type
+    private static final int MIN_UNFLIPPABLE_GAIN = 2; // Unstable lines needed to spend an unflippable disc
+    private static final int MIN_BOMB_GAIN = 2; // Neighbor balance needed to spend a bomb
+
+    private final int width;
+    private final int[] scratch = new int[BitBoard.SQUARES]; // Scores of the squares being ranked
+
+    // Instrumentation
+    private long expanded;
+    private long skipped;
+
+    /**
+     * Constructs a policy that expands the two best squares per special type.
+     */
+    public SpecialDiscPolicy() {
+        this(DEFAULT_WIDTH);
+    }
+
+    /**
+     * Constructs a policy.
+     *
+     * @param width The number of squares to expand per special disc type.
+     */
+    public SpecialDiscPolicy(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Writes the moves to search into a buffer: a simple disc on every legal square,
+     * then unflippable and bomb discs on the best rated squares only.
+     *
+     * @param board  The position.
+     * @param legal  The legal squares of the side to move.
+     * @param buffer The buffer to fill.
+     * @return The number of moves written.
+     */
+    public int generateMoves(SearchBoard board, long legal, int[] buffer) {
+        int count = 0;
+        int squares = 0;
+        for (long rest = legal; rest != 0; rest &= rest - 1) {
+            buffer[count++] = SearchBoard.move(Long.numberOfTrailingZeros(rest), DiscType.SIMPLE);
+            squares++;
+        }
+        int side = board.side();
+        if (board.unflippablesLeft(side) > 0) {
+            count = addBest(board, legal, DiscType.UNFLIPPABLE, MIN_UNFLIPPABLE_GAIN, buffer, count);
+        }
+        if (board.bombsLeft(side) > 0) {
+            count = addBest(board, legal, DiscType.BOMB, MIN_BOMB_GAIN, buffer, count);
+        }
+        long full = (long) squares * (1 + (board.unflippablesLeft(side) > 0 ? 1 : 0) + (board.bombsLeft(side) > 0 ? 1 : 0));
+        expanded += count;
+        skipped += full - count;
+        return count;
+    }
+
+    /**
+     * Adds the special variant of the best rated squares whose rating reaches the minimum.
+     */
+    private int addBest(SearchBoard board, long legal, DiscType type, int minimum, int[] buffer, int count) {
+        for (long rest = legal; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            scratch[square] = type == DiscType.BOMB ? bombGain(board, square) : unflippableGain(board, square);
+        }
+        for (int picked = 0; picked < width; picked++) {
+            int best = -1;
+            int bestScore = minimum - 1;
+            for (long rest = legal; rest != 0; rest &= rest - 1) {
+                int square = Long.numberOfTrailingZeros(rest);
+                if (scratch[square] > bestScore) {
+                    best = square;
+                    bestScore = scratch[square];
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            scratch[best] = Integer.MIN_VALUE; // Do not pick it twice
+            buffer[count++] = SearchBoard.move(best, type);
+        }
+        return count;
+    }
+
+    /**
+     * Estimates the stability an unflippable disc gains over a simple one:
+     * the number of lines (of the four through the square) along which the new disc could be flipped.
+     *
+     * @param board  The position before the move.
+     * @param square The square of the move.
+     * @return The number of unstable lines, between 0 and 4.
+     */
+    public static int unflippableGain(SearchBoard board, int square) {
+        int side = board.side();
+        long flipped = board.flips(square) & ~board.unflippables();
+        long bit = 1L << square;
+        long own = board.discs(side) | flipped | bit;
+        long empty = board.empty() & ~bit;
+        int unstable = 0;
+        for (int direction = 0; direction < BitBoard.DIRECTIONS / 2; direction++) {
+            int opposite = BitBoard.DIRECTIONS - 1 - direction;
+            long one = BitBoard.ray(square, direction);
+            long other = BitBoard.ray(square, opposite);
+            boolean full = ((one | other) & empty) == 0;
+            boolean anchored = (one & ~own) == 0 || (other & ~own) == 0; // Runs to the edge through own discs
+            if (!full && !anchored) {
+                unstable++;
+            }
+        }
+        return unstable;
+    }
+
+    /**
+     * Estimates what a bomb gains over a simple disc: the opponent's discs around it (taken
+     * when the bomb changes hands back) minus the mover's own (lost when the opponent takes it).
+     *
+     * @param board  The position before the move.
+     * @param square The square of the move.
+     * @return The neighbor balance after the move.
+     */
+    public static int bombGain(SearchBoard board, int square) {
+        int side = board.side();
+        long flipped = board.flips(square) & ~board.unflippables();
+        long around = BitBoard.neighbors(square) & ~board.unflippables(); // Unflippable discs never change hands
+        long own = board.discs(side) | flipped;
+        long opp = board.discs(side ^ 1) & ~flipped;
+        return Long.bitCount(around & opp) - Long.bitCount(around & own);
+    }
+
+    /**
+     * Gets the number of moves this policy has handed to the search.
+     *
+     * @return The number of expanded moves.
+     */
+    public long getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Gets the number of special-disc moves this policy has left out.
+     *
+     * @return The number of skipped moves.
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Resets the expanded and skipped counters.
+     */
+    public void resetCounters() {
+        expanded = 0;
+        skipped = 0;
+    }
+}
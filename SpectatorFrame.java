@@ -0,0 +1,320 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A window to watch many AI-vs-AI games at once, with the running score of the match.
+ * Background threads play the games on {@link HeadlessGame}s as fast as the AIs allow; each thread
+ * takes turns between its boards, one move at a time, and after every move publishes the new position.
+ * The window never waits for the games and they never wait for it: a Swing timer, running at a capped
+ * frame rate, looks at the latest published positions and repaints only the boards that changed.
+ * Every board is a small thumbnail drawn directly in paintComponent.
+ * The two AIs swap colors from one game to the next; a board starts a new game as soon as one ends.
+ *
+ * Run it with: java SpectatorFrame first-AI second-AI [-boards N] [-threads N] [-fps N] [-games N] [-seed S]
+ * where -games stops the match after that many games (it goes on until the window is closed otherwise).
+ */
+public class SpectatorFrame extends JFrame {
+    private static final int THUMBNAIL_SIZE = 96; // Pixels per board
+    private static final int CAPTION_HEIGHT = 16; // Pixels of the score line under each board
+    private static final int GAP = 8; // Pixels between boards
+    private static final Color PLAYER_ONE_COLOR = Color.BLUE;
+    private static final Color PLAYER_TWO_COLOR = new Color(255, 0, 0);
+    private static final Color DARK_SQUARE = new Color(0, 0, 0);
+    private static final Color LIGHT_SQUARE = Color.WHITE;
+
+    private final String[] types; // The first and second AI
+    private final int maxGames; // Games of the match, or 0 for no limit
+    private final AtomicReferenceArray<GameSnapshot> positions; // Latest position of each board, from the game threads
+    private final AtomicIntegerArray gameNumbers; // Number of the game on each board
+    private final GameSnapshot[] painted; // Position of each board at its last repaint; used by the UI thread only
+    private final int columns;
+    private final AtomicInteger nextGame = new AtomicInteger();
+    private final AtomicInteger[] wins = {new AtomicInteger(), new AtomicInteger()}; // Wins of the first and second AI
+    private final AtomicInteger draws = new AtomicInteger();
+    private final AtomicLong moves = new AtomicLong();
+    private final JLabel statsLabel = new JLabel(" ");
+    private final JPanel grid = new JPanel() {
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            paintBoards((Graphics2D) g);
+        }
+    };
+    private long lastMoves; // Move count and time of the last stats update, for the move rate
+    private long lastStatsTime = System.nanoTime();
+
+    /**
+     * Creates the window. The games start with {@link #start(int, int, long)}.
+     *
+     * @param firstType  The registered name of the first AI.
+     * @param secondType The registered name of the second AI.
+     * @param boards     The number of games shown and played at the same time.
+     * @param maxGames   The number of games of the match, or 0 for no limit.
+     */
+    public SpectatorFrame(String firstType, String secondType, int boards, int maxGames) {
+        super("Spectator: " + firstType + " vs " + secondType);
+        this.types = new String[]{firstType, secondType};
+        this.maxGames = maxGames;
+        this.positions = new AtomicReferenceArray<>(boards);
+        this.gameNumbers = new AtomicIntegerArray(boards);
+        this.painted = new GameSnapshot[boards];
+        this.columns = (int) Math.ceil(Math.sqrt(boards));
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        int rows = (boards + columns - 1) / columns;
+        grid.setPreferredSize(new Dimension(columns * (THUMBNAIL_SIZE + GAP) + GAP,
+                rows * (THUMBNAIL_SIZE + CAPTION_HEIGHT + GAP) + GAP));
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        topPanel.add(statsLabel);
+        add(topPanel, BorderLayout.NORTH);
+        add(new JScrollPane(grid), BorderLayout.CENTER);
+        pack();
+        setLocationRelativeTo(null);
+    }
+
+    /**
+     * Starts the game threads and the display timer.
+     *
+     * @param threads The number of threads playing the games.
+     * @param fps     The highest number of frames drawn per second.
+     * @param seed    The seed of the random players.
+     */
+    public void start(int threads, int fps, long seed) {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int board = 0; board < positions.length(); board++) {
+            positions.set(board, GameSnapshot.initial());
+        }
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            SplittableRandom random = seeds.split();
+            Thread thread = new Thread(() -> play(first, threads, random), "Spectator games " + t);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        Timer timer = new Timer(Math.max(1, 1000 / fps), e -> refresh());
+        timer.start();
+    }
+
+    /**
+     * Plays the games of every board from first on, stepping by the number of threads,
+     * one move per board in turn, until the match is over.
+     */
+    private void play(int first, int step, SplittableRandom random) {
+        Map<String, AIPlayer> players = new HashMap<>(); // Shared by the boards of this thread, by type and color
+        int count = (positions.length() - first + step - 1) / step;
+        HeadlessGame[] games = new HeadlessGame[count];
+        boolean[] swapped = new boolean[count];
+        while (true) {
+            boolean playing = false;
+            for (int i = 0; i < count; i++) {
+                int board = first + i * step;
+                HeadlessGame game = games[i];
+                if (game == null || game.isGameFinished()) {
+                    if (game != null) {
+                        record(game.snapshot(), swapped[i]);
+                        games[i] = null;
+                    }
+                    int number = nextGame.getAndIncrement();
+                    if (maxGames > 0 && number >= maxGames) {
+                        continue; // The board keeps showing its last game
+                    }
+                    swapped[i] = number % 2 == 1;
+                    game = new HeadlessGame(player(players, types[swapped[i] ? 1 : 0], true, random),
+                            player(players, types[swapped[i] ? 0 : 1], false, random));
+                    games[i] = game;
+                    gameNumbers.set(board, number + 1);
+                }
+                playing = true;
+                game.claimPlayers(); // The players carry the inventories of the last board they played on
+                AIPlayer current = (AIPlayer) (game.isFirstPlayerTurn() ? game.getFirstPlayer() : game.getSecondPlayer());
+                Move move = current.makeMove(game);
+                if (!game.locate_disc(move.position(), move.disc())) {
+                    throw new IllegalStateException(current.getClass().getSimpleName() + " played an illegal move");
+                }
+                moves.incrementAndGet();
+                positions.set(board, game.snapshot());
+            }
+            if (!playing) {
+                return;
+            }
+        }
+    }
+
+    private static AIPlayer player(Map<String, AIPlayer> players, String type, boolean isPlayerOne, SplittableRandom random) {
+        return players.computeIfAbsent(type + (isPlayerOne ? "/1" : "/2"), key -> {
+            AIPlayer player = AIPlayer.createAIPlayer(type, isPlayerOne);
+            if (player instanceof AlphaBetaAI) {
+                ((AlphaBetaAI) player).setPondering(false); // Its thread would compete with the games
+            } else if (player instanceof RandomAI) {
+                ((RandomAI) player).setRandom(random.split());
+            }
+            return player;
+        });
+    }
+
+    private void record(GameSnapshot last, boolean swapped) {
+        int difference = Long.bitCount(last.discs(0)) - Long.bitCount(last.discs(1)); // For player 1
+        if (difference == 0) {
+            draws.incrementAndGet();
+        } else {
+            wins[(difference > 0) != swapped ? 0 : 1].incrementAndGet();
+        }
+    }
+
+    /**
+     * Runs on the display timer: schedules a repaint of the boards whose position changed, and updates the stats.
+     */
+    private void refresh() {
+        for (int board = 0; board < painted.length; board++) {
+            if (positions.get(board) != painted[board]) {
+                grid.repaint(cellX(board), cellY(board), THUMBNAIL_SIZE, THUMBNAIL_SIZE + CAPTION_HEIGHT);
+            }
+        }
+        long now = System.nanoTime();
+        if (now - lastStatsTime >= 1_000_000_000L) {
+            long total = moves.get();
+            double rate = (total - lastMoves) * 1e9 / (now - lastStatsTime);
+            lastMoves = total;
+            lastStatsTime = now;
+            int played = wins[0].get() + wins[1].get() + draws.get();
+            statsLabel.setText(String.format("Games %d   %s %d - %d %s, %d draws   %.0f moves/s",
+                    played, types[0], wins[0].get(), wins[1].get(), types[1], draws.get(), rate));
+        }
+    }
+
+    private int cellX(int board) {
+        return GAP + board % columns * (THUMBNAIL_SIZE + GAP);
+    }
+
+    private int cellY(int board) {
+        return GAP + board / columns * (THUMBNAIL_SIZE + CAPTION_HEIGHT + GAP);
+    }
+
+    /**
+     * Paints the boards inside the clip of the graphics, each from its latest published position.
+     */
+    private void paintBoards(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Rectangle clip = g.getClipBounds();
+        for (int board = 0; board < painted.length; board++) {
+            int x = cellX(board);
+            int y = cellY(board);
+            if (clip != null && !clip.intersects(x, y, THUMBNAIL_SIZE, THUMBNAIL_SIZE + CAPTION_HEIGHT)) {
+                continue;
+            }
+            GameSnapshot position = positions.get(board);
+            painted[board] = position;
+            if (position != null) {
+                paintThumbnail(g, position, x, y, THUMBNAIL_SIZE);
+                paintCaption(g, position, gameNumbers.get(board), x, y + THUMBNAIL_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Draws a board with its discs. Unflippable discs have a white ring, bombs a black center.
+     *
+     * @param g        The graphics to draw with.
+     * @param position The position to draw.
+     * @param x        The left edge.
+     * @param y        The top edge.
+     * @param size     The width and height of the board.
+     */
+    static void paintThumbnail(Graphics2D g, GameSnapshot position, int x, int y, int size) {
+        int cell = size / BitBoard.SIZE;
+        for (int row = 0; row < BitBoard.SIZE; row++) {
+            for (int col = 0; col < BitBoard.SIZE; col++) {
+                int left = x + col * cell;
+                int top = y + row * cell;
+                g.setColor((row + col) % 2 != 0 ? DARK_SQUARE : LIGHT_SQUARE);
+                g.fillRect(left, top, cell, cell);
+                long bit = BitBoard.bit(row, col);
+                if (((position.discs(0) | position.discs(1)) & bit) == 0) {
+                    continue;
+                }
+                int inset = Math.max(1, cell / 8);
+                int diameter = cell - 2 * inset;
+                g.setColor((position.discs(0) & bit) != 0 ? PLAYER_ONE_COLOR : PLAYER_TWO_COLOR);
+                g.fillOval(left + inset, top + inset, diameter, diameter);
+                switch (position.typeAt(row * BitBoard.SIZE + col)) {
+                    case UNFLIPPABLE:
+                        g.setColor(Color.WHITE);
+                        g.drawOval(left + 2 * inset, top + 2 * inset, diameter - 2 * inset, diameter - 2 * inset);
+                        break;
+                    case BOMB:
+                        g.setColor(Color.BLACK);
+                        g.fillOval(left + cell / 2 - inset, top + cell / 2 - inset, 2 * inset, 2 * inset);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    private void paintCaption(Graphics2D g, GameSnapshot position, int number, int x, int y) {
+        g.setColor(getBackground());
+        g.fillRect(x, y, THUMBNAIL_SIZE, CAPTION_HEIGHT);
+        FontMetrics metrics = g.getFontMetrics();
+        int baseline = y + (CAPTION_HEIGHT + metrics.getAscent()) / 2 - 1;
+        g.setColor(Color.DARK_GRAY);
+        g.drawString("#" + number, x, baseline);
+        String red = Integer.toString(Long.bitCount(position.discs(1)));
+        g.setColor(PLAYER_TWO_COLOR);
+        g.drawString(red, x + THUMBNAIL_SIZE - metrics.stringWidth(red), baseline);
+        String blue = Long.bitCount(position.discs(0)) + " :";
+        g.setColor(PLAYER_ONE_COLOR);
+        g.drawString(blue, x + THUMBNAIL_SIZE - metrics.stringWidth(red + " " + blue), baseline);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java SpectatorFrame first-AI second-AI [-boards N] [-threads N] [-fps N] [-games N] [-seed S]");
+            return;
+        }
+        int boards = 16;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int fps = 20;
+        int games = 0;
+        long seed = System.nanoTime();
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "-boards":
+                    boards = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-fps":
+                    fps = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-games":
+                    games = Integer.parseInt(args[i + 1]);
+                    break;
+                case "-seed":
+                    seed = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        AIPlayer.registerAllAIPlayers();
+        int boardCount = boards;
+        int threadCount = Math.min(threads, boards);
+        int frameRate = fps;
+        int maxGames = games;
+        long randomSeed = seed;
+        SwingUtilities.invokeLater(() -> {
+            SpectatorFrame frame = new SpectatorFrame(args[0], args[1], boardCount, maxGames);
+            frame.setVisible(true);
+            frame.start(threadCount, frameRate, randomSeed);
+        });
+    }
+}
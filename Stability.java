@@ -0,0 +1,149 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes which discs can never change owner again, with bitboard fill operations.
+ *
+ * A disc is stable when, along each of its four lines, it cannot be bracketed: the line is full,
+ * or the next square on one side is off the board or holds a stable disc of the same owner.
+ * This is iterated to a fixed point. Two rules of this game are added on top:
+ * unflippable discs never change owner, so they are always stable (but a run can pass through them,
+ * so they only protect their neighbors when they are line-stable themselves); and a disc next to a bomb,
+ * or next to an empty square while a bomb is still in hand, can be flipped by an explosion, so it is not stable.
+ */
+public final class Stability {
+    private static final int AXES = 4; // Horizontal, vertical and the two diagonals
+    private static final int[] AXIS_DIRECTIONS = {3, 1, 0, 2}; // One direction of each axis (the other is 7 - d)
+    private static final long[][] LINES = new long[AXES][]; // The distinct lines of the board along each axis
+    private static final long[] NO_NEIGHBOR = new long[BitBoard.DIRECTIONS]; // Squares with no neighbor in a direction
+
+    static {
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            NO_NEIGHBOR[direction] = ~BitBoard.shift(-1L, BitBoard.DIRECTIONS - 1 - direction);
+        }
+        for (int axis = 0; axis < AXES; axis++) {
+            int direction = AXIS_DIRECTIONS[axis];
+            List<Long> lines = new ArrayList<>();
+            for (int square = 0; square < BitBoard.SQUARES; square++) {
+                long line = 1L << square;
+                for (long next = BitBoard.shift(line, direction); next != 0; next = BitBoard.shift(next, direction)) {
+                    line |= next;
+                }
+                for (long next = BitBoard.shift(1L << square, BitBoard.DIRECTIONS - 1 - direction); next != 0;
+                     next = BitBoard.shift(next, BitBoard.DIRECTIONS - 1 - direction)) {
+                    line |= next;
+                }
+                if (!lines.contains(line)) {
+                    lines.add(line);
+                }
+            }
+            LINES[axis] = lines.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    private Stability() {
+    }
+
+    /**
+     * Calculates the squares lying on a completely filled line along an axis.
+     *
+     * @param occupied The occupied squares.
+     * @param axis     0 = horizontal, 1 = vertical, 2 = down-right diagonal, 3 = down-left diagonal.
+     * @return The union of the full lines.
+     */
+    public static long fullLines(long occupied, int axis) {
+        long full = 0L;
+        for (long line : LINES[axis]) {
+            if ((line & ~occupied) == 0) {
+                full |= line;
+            }
+        }
+        return full;
+    }
+
+    /**
+     * Calculates the stable discs of one player.
+     *
+     * @param board  The position.
+     * @param player 0 for player 1, 1 for player 2.
+     * @return The mask of the player's discs that can never be flipped.
+     */
+    public static long stableDiscs(SearchBoard board, int player) {
+        long occupied = ~board.empty();
+        // Per axis: the squares that cannot be bracketed along it whatever the neighbors are
+        long guard0 = fullLines(occupied, 0) | NO_NEIGHBOR[3] | NO_NEIGHBOR[4];
+        long guard1 = fullLines(occupied, 1) | NO_NEIGHBOR[1] | NO_NEIGHBOR[6];
+        long guard2 = fullLines(occupied, 2) | NO_NEIGHBOR[0] | NO_NEIGHBOR[7];
+        long guard3 = fullLines(occupied, 3) | NO_NEIGHBOR[2] | NO_NEIGHBOR[5];
+        long unflippables = board.unflippables();
+        long own = board.discs(player) & ((occupied & ~bombReach(board)) | unflippables);
+
+        long stable = 0L;
+        while (true) {
+            long next = own
+                    & (guard0 | BitBoard.shift(stable, 3) | BitBoard.shift(stable, 4))
+                    & (guard1 | BitBoard.shift(stable, 1) | BitBoard.shift(stable, 6))
+                    & (guard2 | BitBoard.shift(stable, 0) | BitBoard.shift(stable, 7))
+                    & (guard3 | BitBoard.shift(stable, 2) | BitBoard.shift(stable, 5));
+            if (next == stable) {
+                break;
+            }
+            stable = next;
+        }
+        return stable | (board.discs(player) & unflippables);
+    }
+
+    /**
+     * Calculates the squares an explosion could reach: the neighbors of every bomb,
+     * and the neighbors of every empty square while either player still holds a bomb.
+     */
+    private static long bombReach(SearchBoard board) {
+        long sources = board.bombs();
+        if (board.bombsLeft(0) > 0 || board.bombsLeft(1) > 0) {
+            sources |= board.empty();
+        }
+        long reach = 0L;
+        for (int direction = 0; direction < BitBoard.DIRECTIONS; direction++) {
+            reach |= BitBoard.shift(sources, direction);
+        }
+        return reach;
+    }
+
+    /**
+     * Gets a lower bound on the player's disc count at the end of the game.
+     *
+     * @param board  The position.
+     * @param player 0 for player 1, 1 for player 2.
+     * @return The number of stable discs of the player.
+     */
+    public static int lowerBound(SearchBoard board, int player) {
+        return Long.bitCount(stableDiscs(board, player));
+    }
+
+    /**
+     * Gets an upper bound on the player's disc count at the end of the game.
+     *
+     * @param board  The position.
+     * @param player 0 for player 1, 1 for player 2.
+     * @return The number of squares not held by a stable opponent disc.
+     */
+    public static int upperBound(SearchBoard board, int player) {
+        return BitBoard.SQUARES - lowerBound(board, player ^ 1);
+    }
+
+    /**
+     * Lists the stable discs of a game, for example to shade them on the board.
+     *
+     * @param game The game.
+     * @return The positions of the stable discs of both players.
+     */
+    public static List<Position> stablePositions(PlayableLogic game) {
+        SearchBoard board = SearchBoard.from(game);
+        long stable = stableDiscs(board, 0) | stableDiscs(board, 1);
+        List<Position> positions = new ArrayList<>(Long.bitCount(stable));
+        for (; stable != 0; stable &= stable - 1) {
+            positions.add(Position.of(Long.numberOfTrailingZeros(stable)));
+        }
+        return positions;
+    }
+}
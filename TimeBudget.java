@@ -0,0 +1,101 @@
+/**
+ * The time one search may spend on a move, and the decision to start another iteration.
+ * A budget has a soft limit, the time the move should normally take, and a hard limit at which
+ * the running iteration is abandoned. The next iteration is only started while less than half
+ * the soft limit is used, since it usually takes longer than all previous ones together; when the
+ * score changed a lot in the last iteration, the soft limit is stretched towards the hard one,
+ * because the best move is still uncertain.
+ */
+public final class TimeBudget {
+    private static final double SAFETY = 0.9; // Share of the available time that is planned for
+    private static final int MIN_MOVES_LEFT = 6; // Time is always split as if this many moves remained
+    private static final double MAX_SHARE = 0.25; // A move never takes more than this share of the remaining time
+    private static final double HARD_FACTOR = 4; // The hard limit is this many soft limits at most
+    private static final double NEXT_ITERATION = 0.5; // Share of the soft limit after which no iteration starts
+    private static final int UNSTABLE_MARGIN = 30; // A score change larger than this makes the move uncertain
+    private static final double UNSTABLE_EXTENSION = 2; // Soft limit factor while the move is uncertain
+    private static final long MIN_NANOS = 1_000_000L; // Every move gets at least a millisecond
+    private static final long MOVE_OVERHEAD_NANOS = 20_000_000L; // Time each move costs outside the search
+
+    private final long softNanos;
+    private final long hardNanos;
+    private final boolean useAll; // Search until the hard limit, as with a fixed time per move
+    private boolean hasScore;
+    private int lastScore;
+
+    private TimeBudget(long softNanos, long hardNanos, boolean useAll) {
+        this.hardNanos = Math.max(hardNanos, MIN_NANOS);
+        this.softNanos = Math.min(Math.max(softNanos, MIN_NANOS), this.hardNanos);
+        this.useAll = useAll;
+    }
+
+    /**
+     * Creates a budget that searches until a fixed time has passed.
+     *
+     * @param nanos The time limit in nanoseconds.
+     * @return The budget.
+     */
+    public static TimeBudget fixed(long nanos) {
+        return new TimeBudget(nanos, nanos, true);
+    }
+
+    /**
+     * Allocates the time of one move.
+     * The remaining time is split over the moves the player still has to make (half the empty squares),
+     * plus most of the increment; the midgame gets more than its share and the opening less,
+     * since that is where deeper searches change the result the most. Some time is kept back on every move
+     * for the work outside the search, such as placing the disc.
+     *
+     * @param control        The time control.
+     * @param remainingNanos The time the player has left (for the move, with a fixed time per move).
+     * @param empties        The number of empty squares.
+     * @return The budget.
+     */
+    public static TimeBudget allocate(TimeControl control, long remainingNanos, int empties) {
+        if (control.kind() == TimeControl.Kind.PER_MOVE) {
+            return fixed((long) Math.min(remainingNanos * SAFETY, remainingNanos - MOVE_OVERHEAD_NANOS));
+        }
+        int movesLeft = Math.max(MIN_MOVES_LEFT, (empties + 1) / 2);
+        double available = Math.max(0, remainingNanos - (double) MOVE_OVERHEAD_NANOS * movesLeft) * SAFETY;
+        double increment = Math.max(0, control.incrementNanos() - MOVE_OVERHEAD_NANOS) * SAFETY;
+        double soft = (available / movesLeft + increment) * phaseWeight(empties);
+        double hard = Math.min(soft * HARD_FACTOR, available * MAX_SHARE + increment);
+        return new TimeBudget((long) soft, (long) hard, false);
+    }
+
+    /**
+     * Weights the time of a move by the phase of the game.
+     */
+    private static double phaseWeight(int empties) {
+        if (empties > 44) {
+            return 0.6; // Opening
+        }
+        return empties > 16 ? 1.25 : 1.0;
+    }
+
+    public long softNanos() {
+        return softNanos;
+    }
+
+    public long hardNanos() {
+        return hardNanos;
+    }
+
+    /**
+     * Decides after an iteration whether the search starts the next one.
+     *
+     * @param score        The score of the completed iteration.
+     * @param elapsedNanos The time spent since the search started.
+     * @return True to search one ply deeper.
+     */
+    public boolean startNextIteration(int score, long elapsedNanos) {
+        boolean unstable = hasScore && Math.abs(score - lastScore) > UNSTABLE_MARGIN;
+        hasScore = true;
+        lastScore = score;
+        if (useAll) {
+            return elapsedNanos < hardNanos;
+        }
+        double soft = unstable ? Math.min(hardNanos, softNanos * UNSTABLE_EXTENSION) : softNanos;
+        return elapsedNanos < soft * NEXT_ITERATION;
+    }
+}
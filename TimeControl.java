@@ -0,0 +1,144 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time rules of a game: sudden death, Fischer increment or a fixed time per move.
+ * Time controls are written as text for the command line and the {@value #PROPERTY} system property:
+ * "sd:300" is sudden death with 300 seconds per player, "fischer:180+2" is 180 seconds plus
+ * 2 seconds per move, and "move:1.5" is 1.5 seconds for every move.
+ */
+public final class TimeControl {
+    public static final String PROPERTY = "time.control"; // System property holding the default time control
+
+    /**
+     * The kinds of time control.
+     */
+    public enum Kind {
+        /** A fixed amount of time for the whole game. */
+        SUDDEN_DEATH,
+        /** A fixed amount of time for the whole game, plus an increment after every move. */
+        FISCHER,
+        /** A fixed amount of time for every move; unused time is lost. */
+        PER_MOVE
+    }
+
+    private final Kind kind;
+    private final long baseNanos; // Time for the game, or for each move with PER_MOVE
+    private final long incrementNanos; // Time added after each move with FISCHER
+
+    private TimeControl(Kind kind, long baseNanos, long incrementNanos) {
+        this.kind = kind;
+        this.baseNanos = baseNanos;
+        this.incrementNanos = incrementNanos;
+    }
+
+    /**
+     * Creates a sudden-death time control.
+     *
+     * @param millis The time of each player for the whole game, in milliseconds.
+     * @return The time control.
+     */
+    public static TimeControl suddenDeath(long millis) {
+        return new TimeControl(Kind.SUDDEN_DEATH, TimeUnit.MILLISECONDS.toNanos(millis), 0);
+    }
+
+    /**
+     * Creates a Fischer time control.
+     *
+     * @param millis          The time of each player at the start, in milliseconds.
+     * @param incrementMillis The time added after each move, in milliseconds.
+     * @return The time control.
+     */
+    public static TimeControl fischer(long millis, long incrementMillis) {
+        return new TimeControl(Kind.FISCHER, TimeUnit.MILLISECONDS.toNanos(millis), TimeUnit.MILLISECONDS.toNanos(incrementMillis));
+    }
+
+    /**
+     * Creates a fixed time per move.
+     *
+     * @param millis The time for each move, in milliseconds.
+     * @return The time control.
+     */
+    public static TimeControl perMove(long millis) {
+        return new TimeControl(Kind.PER_MOVE, TimeUnit.MILLISECONDS.toNanos(millis), 0);
+    }
+
+    /**
+     * Reads a time control in the text notation ("sd:300", "fischer:180+2" or "move:1.5", in seconds).
+     *
+     * @param text The time control as text.
+     * @return The time control.
+     * @throws IllegalArgumentException If the text is not a time control.
+     */
+    public static TimeControl parse(String text) {
+        int colon = text.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Not a time control: " + text);
+        }
+        String value = text.substring(colon + 1);
+        try {
+            switch (text.substring(0, colon)) {
+                case "sd":
+                    return suddenDeath(millis(value));
+                case "fischer":
+                    int plus = value.indexOf('+');
+                    if (plus < 0) {
+                        throw new IllegalArgumentException("Missing increment: " + text);
+                    }
+                    return fischer(millis(value.substring(0, plus)), millis(value.substring(plus + 1)));
+                case "move":
+                    return perMove(millis(value));
+                default:
+                    throw new IllegalArgumentException("Not a time control: " + text);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a time control: " + text, e);
+        }
+    }
+
+    private static long millis(String seconds) {
+        return Math.round(Double.parseDouble(seconds) * 1000);
+    }
+
+    /**
+     * Gets the time control named by the {@value #PROPERTY} system property.
+     *
+     * @return The time control, or null if the property is not set or malformed.
+     */
+    public static TimeControl fromProperty() {
+        String text = System.getProperty(PROPERTY);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return parse(text);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring time control: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public long baseNanos() {
+        return baseNanos;
+    }
+
+    public long incrementNanos() {
+        return incrementNanos;
+    }
+
+    @Override
+    public String toString() {
+        double base = baseNanos / 1e9;
+        switch (kind) {
+            case FISCHER:
+                return "fischer:" + base + "+" + incrementNanos / 1e9;
+            case PER_MOVE:
+                return "move:" + base;
+            default:
+                return "sd:" + base;
+        }
+    }
+}
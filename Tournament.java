@@ -0,0 +1,133 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Headless tool that plays a match between two AI players under a time control.
+ * The players swap colors after every game. Each AI's clock runs from the moment it is to move
+ * until its move is placed, and a player who runs out of time loses the game.
+ * Pondering is turned off, so that neither AI searches while the other one's clock runs.
+ * With a seed, every random player of every game draws from a stream split off the seed, so an untimed
+ * match gives the same result each time it is run.
+ *
+ * Run it with: java Tournament first-AI second-AI games [time-control] [-seed S]
+ * where the time control is written as in {@link TimeControl#parse(String)}, for example "fischer:60+1";
+ * without one, the games are untimed.
+ */
+public class Tournament {
+    private final String firstType;
+    private final String secondType;
+    private final TimeControl timeControl;
+    private SplittableRandom seeds; // Splits off the stream of each random player, or null for unseeded players
+    private final int[] wins = new int[2]; // Games won by the first and second AI
+    private final int[] timeLosses = new int[2]; // Games lost on time by the first and second AI
+    private int draws;
+
+    /**
+     * Constructs a match.
+     *
+     * @param firstType   The registered name of the first AI.
+     * @param secondType  The registered name of the second AI.
+     * @param timeControl The time control of every game, or null for untimed games.
+     */
+    public Tournament(String firstType, String secondType, TimeControl timeControl) {
+        this.firstType = firstType;
+        this.secondType = secondType;
+        this.timeControl = timeControl;
+    }
+
+    /**
+     * Makes the random players of the following games reproducible.
+     *
+     * @param seed The seed of the match.
+     */
+    public void setSeed(long seed) {
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * Plays the games of the match. The first AI plays first in even games.
+     *
+     * @param games The number of games.
+     */
+    public void play(int games) {
+        for (int game = 0; game < games; game++) {
+            boolean firstStarts = game % 2 == 0;
+            AIPlayer player1 = AIPlayer.createAIPlayer(firstStarts ? firstType : secondType, true);
+            AIPlayer player2 = AIPlayer.createAIPlayer(firstStarts ? secondType : firstType, false);
+            for (AIPlayer player : new AIPlayer[]{player1, player2}) {
+                if (player instanceof AlphaBetaAI) {
+                    ((AlphaBetaAI) player).setPondering(false);
+                } else if (player instanceof RandomAI && seeds != null) {
+                    ((RandomAI) player).setRandom(seeds.split());
+                }
+            }
+            GameLogic logic = new GameLogic();
+            logic.setPlayers(player1, player2);
+            logic.setTimeControl(timeControl);
+            logic.reset();
+            while (true) {
+                AIPlayer current = logic.isFirstPlayerTurn() ? player1 : player2;
+                Move move = current.makeMove(logic);
+                if (!logic.locate_disc(move.position(), move.disc()) && !logic.checkTimeForfeit()) {
+                    throw new IllegalStateException(current.getClass().getSimpleName() + " played an illegal move");
+                }
+                if (logic.isGameFinished()) {
+                    break;
+                }
+            }
+            int firstIndex = firstStarts ? 0 : 1; // Color of the first AI in this game
+            if (logic.getTimeForfeit() != null) {
+                timeLosses[(logic.getTimeForfeit() == player1 ? 0 : 1) == firstIndex ? 0 : 1]++;
+            }
+            if (player1.getWins() > 0) {
+                wins[firstIndex == 0 ? 0 : 1]++;
+            } else if (player2.getWins() > 0) {
+                wins[firstIndex == 1 ? 0 : 1]++;
+            } else {
+                draws++;
+            }
+        }
+    }
+
+    /**
+     * Describes the result of the match.
+     *
+     * @return The wins of both AIs, the draws and the losses on time.
+     */
+    @Override
+    public String toString() {
+        return firstType + " " + wins[0] + " - " + wins[1] + " " + secondType + ", " + draws + " draws"
+                + (timeControl == null ? "" : " (" + timeControl + ", lost on time: " + timeLosses[0] + " - " + timeLosses[1] + ")");
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: java Tournament first-AI second-AI games [time-control] [-seed S]");
+            return;
+        }
+        AIPlayer.registerAllAIPlayers();
+        TimeControl timeControl = TimeControl.fromProperty();
+        Long seed = null;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("-seed") && i + 1 < args.length) {
+                seed = Long.parseLong(args[++i]);
+            } else {
+                timeControl = TimeControl.parse(args[i]);
+            }
+        }
+        Tournament tournament = new Tournament(args[0], args[1], timeControl);
+        if (seed != null) {
+            tournament.setSeed(seed);
+        }
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // GameLogic reports every move
+        try {
+            tournament.play(Integer.parseInt(args[2]));
+        } finally {
+            System.setOut(out);
+        }
+        System.out.println(tournament);
+    }
+}
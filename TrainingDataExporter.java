@@ -0,0 +1,175 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Headless tool that turns recorded games into training data for an {@link NnueNetwork}.
+ * Every position of every game where the game is not over yet becomes one tab-separated line:
+ * the position in the {@link GameSnapshot} text notation, and the final disc difference of the game
+ * from the point of view of the side to move. With -depth, a third column holds the score of a search
+ * of the position with the square-weight evaluator, which a trainer can blend with the result.
+ *
+ * The games can also come from {@link SelfPlay}: given a shard, or a directory of shards, the exporter reads
+ * the games with their stored search labels. The third column then holds the stored score and a fourth one
+ * the stored best move in the GameRecord notation ("-" if the search found none); -depth is not needed.
+ *
+ * Run it with: java TrainingDataExporter games-file|shard|shard-directory output-file [-depth N]
+ */
+public class TrainingDataExporter {
+    private static final int TABLE_SIZE_LOG2 = 20;
+
+    private final SearchEngine engine; // Labels positions with a search score, or null
+    private final int depth;
+
+    /**
+     * Constructs an exporter.
+     *
+     * @param depth The depth of the search score column, or 0 to leave it out.
+     */
+    public TrainingDataExporter(int depth) {
+        this.depth = depth;
+        if (depth > 0) {
+            engine = new SearchEngine(new TranspositionTable(TABLE_SIZE_LOG2),
+                    new MoveOrdering(EnumSet.allOf(MoveOrdering.Heuristic.class)), new WeightedSquareEvaluator());
+            engine.setAlgorithm(SearchEngine.Algorithm.PVS);
+        } else {
+            engine = null;
+        }
+    }
+
+    /**
+     * Writes the training lines of one game.
+     *
+     * @param record The game.
+     * @param output The destination of the lines.
+     * @return The number of positions written.
+     * @throws IOException If writing fails.
+     */
+    public int export(GameRecord record, Writer output) throws IOException {
+        GameReplay replay = new GameReplay(record); // Rejects illegal games
+        GameSnapshot last = replay.positionAt(replay.size());
+        int result = Long.bitCount(last.discs(0)) - Long.bitCount(last.discs(1)); // For player 1
+        int count = 0;
+        for (int ply = 0; ply < replay.size(); ply++) {
+            GameSnapshot position = replay.positionAt(ply);
+            SearchBoard board = position.toSearchBoard();
+            if (board.isGameOver()) {
+                continue;
+            }
+            output.write(position.toString());
+            output.write('\t');
+            output.write(Integer.toString(position.side() == 0 ? result : -result));
+            if (engine != null) {
+                output.write('\t');
+                output.write(Integer.toString(engine.search(board, depth).score()));
+            }
+            output.write('\n');
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the training lines of one self-play game, keeping the search labels stored with it.
+     *
+     * @param positions The positions of the game, none of them over.
+     * @param result    The final disc difference for player 1.
+     * @param scores    The stored search score of each position, for its side to move.
+     * @param bestMoves The stored best move of each position.
+     * @param output    The destination of the lines.
+     * @return The number of positions written.
+     * @throws IOException If writing fails.
+     */
+    public static int export(GameSnapshot[] positions, int result, int[] scores, int[] bestMoves, Writer output)
+            throws IOException {
+        for (int i = 0; i < positions.length; i++) {
+            output.write(positions[i].toString());
+            output.write('\t');
+            output.write(Integer.toString(positions[i].side() == 0 ? result : -result));
+            output.write('\t');
+            output.write(Integer.toString(scores[i]));
+            output.write('\t');
+            output.write(bestMoves[i] == SearchBoard.NO_MOVE ? "-" : GameRecord.format(bestMoves[i]));
+            output.write('\n');
+        }
+        return positions.length;
+    }
+
+    /**
+     * Lists the shards to read: the given file, or the complete shards of the given directory in order.
+     */
+    private static List<Path> shards(Path input) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        if (!Files.isDirectory(input)) {
+            shards.add(input);
+            return shards;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(input, "*" + SelfPlay.SHARD_SUFFIX)) {
+            for (Path file : files) {
+                shards.add(file);
+            }
+        }
+        Collections.sort(shards);
+        return shards;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java TrainingDataExporter games-file|shard|shard-directory output-file [-depth N]");
+            return;
+        }
+        Path source = Paths.get(args[0]);
+        if (Files.isDirectory(source) || args[0].endsWith(SelfPlay.SHARD_SUFFIX)) {
+            long[] totals = new long[2]; // Games, positions
+            try (BufferedWriter output = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                for (Path shard : shards(source)) {
+                    SelfPlay.read(shard, (game, positions, scores, bestMoves) -> {
+                        try {
+                            totals[1] += export(positions, game.result, scores, bestMoves, output);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        totals[0]++;
+                    });
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            System.out.println("Exported " + totals[1] + " positions from " + totals[0] + " games");
+            return;
+        }
+        int depth = args.length > 3 && args[2].equals("-depth") ? Integer.parseInt(args[3]) : 0;
+        TrainingDataExporter exporter = new TrainingDataExporter(depth);
+        long games = 0;
+        long positions = 0;
+        try (BufferedReader input = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             BufferedWriter output = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    positions += exporter.export(GameRecord.parse(line), output);
+                    games++;
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Skipping line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        System.out.println("Exported " + positions + " positions from " + games + " games");
+    }
+}
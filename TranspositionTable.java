@@ -0,0 +1,89 @@
+/**
+ * A fixed-size hash table of search results, indexed by the Zobrist hash of a SearchBoard.
+ * Each entry packs depth, bound, score and best move into one long. The key is stored XORed
+ * with the data, so a torn write from another thread is detected as a miss and the table
+ * can be shared between search threads without locks.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 0; // The score is exact
+    public static final int LOWER = 1; // The score is a lower bound (fail high)
+    public static final int UPPER = 2; // The score is an upper bound (fail low)
+    public static final long MISS = 0L; // Returned by probe when the position is not stored
+
+    private static final long PRESENT = 1L << 23; // Set in every stored entry
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    /**
+     * Constructs a table with 2^sizeLog2 entries.
+     *
+     * @param sizeLog2 The base-2 logarithm of the number of entries.
+     */
+    public TranspositionTable(int sizeLog2) {
+        this.keys = new long[1 << sizeLog2];
+        this.data = new long[1 << sizeLog2];
+        this.mask = (1 << sizeLog2) - 1;
+    }
+
+    /**
+     * Stores a search result, replacing the old entry unless it belongs to
+     * the same position and was searched deeper.
+     *
+     * @param key   The Zobrist hash of the position.
+     * @param depth The remaining depth of the search.
+     * @param score The score found.
+     * @param flag  EXACT, LOWER or UPPER.
+     * @param move  The best move found, or SearchBoard.NO_MOVE.
+     */
+    public void store(long key, int depth, int score, int flag, int move) {
+        int index = (int) key & mask;
+        long old = data[index];
+        if ((keys[index] ^ old) == key && depth(old) > depth && flag != EXACT) {
+            return;
+        }
+        long entry = ((long) score << 32) | PRESENT | ((long) flag << 20) | ((long) Math.min(depth, 255) << 12) | (move + 1);
+        data[index] = entry;
+        keys[index] = key ^ entry;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key The Zobrist hash of the position.
+     * @return The packed entry, or {@link #MISS}.
+     */
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        if ((keys[index] ^ entry) != key || (entry & PRESENT) == 0) {
+            return MISS;
+        }
+        return entry;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 12) & 0xFF;
+    }
+
+    public static int flag(long entry) {
+        return (int) (entry >>> 20) & 0x3;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFF) - 1;
+    }
+}
@@ -15,7 +15,7 @@ this.owner=player;
 
     @Override
     public String getType() {
-        return "⭕";
+        return DiscType.UNFLIPPABLE.symbol();
     }
 }
 
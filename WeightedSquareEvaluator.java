@@ -0,0 +1,52 @@
+/**
+ * Evaluates a position with a classic table of square weights (corners are good,
+ * the squares next to them are bad), the difference in mobility, and the special discs
+ * each player still holds.
+ */
+public class WeightedSquareEvaluator implements Evaluator {
+    private static final int[] SQUARE_WEIGHTS = {
+            100, -20, 10, 5, 5, 10, -20, 100,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            10, -2, -1, -1, -1, -1, -2, 10,
+            5, -2, -1, -1, -1, -1, -2, 5,
+            5, -2, -1, -1, -1, -1, -2, 5,
+            10, -2, -1, -1, -1, -1, -2, 10,
+            -20, -50, -2, -2, -2, -2, -50, -20,
+            100, -20, 10, 5, 5, 10, -20, 100};
+    private static final int MOBILITY_WEIGHT = 8; // Value of each extra move available
+    private static final int BOMB_WEIGHT = 6; // Value of a bomb still in hand
+    private static final int UNFLIPPABLE_WEIGHT = 10; // Value of an unflippable disc still in hand
+
+    /**
+     * Gets the static weight of a square.
+     *
+     * @param square The square index.
+     * @return The weight; corners have the highest value and X-squares the lowest.
+     */
+    public static int weight(int square) {
+        return SQUARE_WEIGHTS[square];
+    }
+
+    @Override
+    public int evaluate(SearchBoard board) {
+        int me = board.side();
+        int opp = me ^ 1;
+        int score = 0;
+        long own = board.discs(me);
+        while (own != 0) {
+            score += SQUARE_WEIGHTS[Long.numberOfTrailingZeros(own)];
+            own &= own - 1;
+        }
+        long theirs = board.discs(opp);
+        while (theirs != 0) {
+            score -= SQUARE_WEIGHTS[Long.numberOfTrailingZeros(theirs)];
+            theirs &= theirs - 1;
+        }
+        int mobility = Long.bitCount(BitBoard.potentialMoves(board.discs(me), board.discs(opp)))
+                - Long.bitCount(BitBoard.potentialMoves(board.discs(opp), board.discs(me)));
+        score += MOBILITY_WEIGHT * mobility;
+        score += BOMB_WEIGHT * (board.bombsLeft(me) - board.bombsLeft(opp));
+        score += UNFLIPPABLE_WEIGHT * (board.unflippablesLeft(me) - board.unflippablesLeft(opp));
+        return score;
+    }
+}